@@ -0,0 +1,115 @@
+package com.example.SpringBootDemo.benchmark;
+
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.entity.UserRole;
+import com.example.SpringBootDemo.security.CustomUserDetails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Authority resolution cost of one authenticated request, before and after precomputing authorities
+ *
+ * A secured request resolves the principal's authorities a few times (the URL rule, a hasRole
+ * method-security check, the response body) and checks one role on the principal. The "legacy"
+ * benchmark replays that with the previous per-call HashSet / stream implementation, "current"
+ * with the shared authority lists. "construct" measures building the principal from a loaded user,
+ * as CustomUserDetailsService does on every login. Run with ./gradlew jmh; the gc profiler reports
+ * gc.alloc.rate.norm, the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthorityResolutionBenchmark {
+
+    /**
+     * Authority lookups per request
+     */
+    private static final int LOOKUPS_PER_REQUEST = 3;
+
+    @Param({"USER", "ADMIN"})
+    private UserRole role;
+
+    private User user;
+    private CustomUserDetails principal;
+
+    @Setup
+    public void setUp() {
+        user = new User("Bench", "User", "bench@example.com", "1234567890");
+        user.setId(1L);
+        user.setPassword("encoded");
+        user.setRole(role);
+        principal = new CustomUserDetails(user);
+    }
+
+    @Benchmark
+    public CustomUserDetails construct() {
+        return new CustomUserDetails(user);
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        for (int i = 0; i < LOOKUPS_PER_REQUEST; i++) {
+            blackhole.consume(legacyGrantedAuthorities(role));
+        }
+        blackhole.consume(legacyHasRole(role, "ADMIN"));
+    }
+
+    @Benchmark
+    public void current(Blackhole blackhole) {
+        for (int i = 0; i < LOOKUPS_PER_REQUEST; i++) {
+            blackhole.consume(principal.getAuthorities());
+        }
+        blackhole.consume(principal.hasRole("ADMIN"));
+    }
+
+    // Previous implementation of UserRole.getAuthorities / CustomUserDetails.getAuthorities / hasRole
+
+    private static Set<String> legacyAuthorities(UserRole role) {
+        Set<String> authorities = new HashSet<>();
+        authorities.add("ROLE_" + role.name());
+        switch (role) {
+            case ADMIN:
+                authorities.add("READ_USERS");
+                authorities.add("WRITE_USERS");
+                authorities.add("DELETE_USERS");
+                authorities.add("ADMIN_ACCESS");
+                break;
+            case MANAGER:
+                authorities.add("READ_USERS");
+                authorities.add("WRITE_USERS");
+                authorities.add("MANAGER_ACCESS");
+                break;
+            case USER:
+                authorities.add("READ_USERS");
+                authorities.add("USER_ACCESS");
+                break;
+        }
+        return authorities;
+    }
+
+    private static Collection<? extends GrantedAuthority> legacyGrantedAuthorities(UserRole role) {
+        return legacyAuthorities(role).stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean legacyHasRole(UserRole role, String roleName) {
+        return legacyGrantedAuthorities(role).stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + roleName));
+    }
+}
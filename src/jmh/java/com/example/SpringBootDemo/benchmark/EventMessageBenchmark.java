@@ -0,0 +1,52 @@
+package com.example.SpringBootDemo.benchmark;
+
+import com.example.SpringBootDemo.config.KafkaConfig;
+import com.example.SpringBootDemo.event.NotificationEvent;
+import com.example.SpringBootDemo.event.NotificationEventSerializer;
+import com.example.SpringBootDemo.event.UserEvent;
+import com.example.SpringBootDemo.event.UserEventSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message building cost of one Kafka send, as done by KafkaProducerService and OutboxService
+ *
+ * Each benchmark creates the event (fresh ID and timestamp), formats its description the way
+ * UserService does and serializes it with the topic's serializer, including the schema-version
+ * header the producer writes. The broker round trip is not included. Run with ./gradlew jmh;
+ * the gc profiler reports gc.alloc.rate.norm, the bytes allocated per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventMessageBenchmark {
+
+    private final UserEventSerializer userEventSerializer = new UserEventSerializer();
+    private final NotificationEventSerializer notificationEventSerializer = new NotificationEventSerializer();
+
+    private final Long userId = 12345L;
+    private final String firstName = "Bench";
+    private final String lastName = "User";
+    private final String email = "bench.user@example.com";
+
+    @Benchmark
+    public byte[] userEvent() {
+        UserEvent event = UserEvent.of("USER_CREATED", userId.toString(),
+                String.format("User %s %s created with email %s", firstName, lastName, email));
+        return userEventSerializer.serialize(KafkaConfig.USER_EVENTS_TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] notification() {
+        NotificationEvent event = NotificationEvent.of(email, "Welcome to User Management System",
+                String.format("Hello %s, your account has been created successfully!", firstName));
+        return notificationEventSerializer.serialize(KafkaConfig.NOTIFICATIONS_TOPIC, new RecordHeaders(), event);
+    }
+}
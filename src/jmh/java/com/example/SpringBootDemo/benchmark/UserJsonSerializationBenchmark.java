@@ -0,0 +1,66 @@
+package com.example.SpringBootDemo.benchmark;
+
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.entity.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of User lists, as written by the list and page endpoints
+ *
+ * Uses an ObjectMapper built with Spring Boot's defaults and writes to a discarding stream, as the
+ * message converter writes to the response, so the result is not buffered in memory.
+ * Run with ./gradlew jmh; the gc profiler reports gc.alloc.rate.norm, the bytes allocated per list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserJsonSerializationBenchmark {
+
+    @Param({"1", "50", "1000"})
+    private int size;
+
+    private final OutputStream out = OutputStream.nullOutputStream();
+
+    private ObjectWriter writer;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, User.class));
+
+        UserRole[] roles = UserRole.values();
+        LocalDateTime now = LocalDateTime.now();
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User("First" + i, "Last" + i, "user" + i + "@example.com", "1234567890");
+            user.setId((long) i + 1);
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuv0123456789ABCDEFGHIJKLMNOPQRSTU");
+            user.setRole(roles[i % roles.length]);
+            user.setLastLogin(now.minusHours(i));
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public void writeList() throws IOException {
+        writer.writeValue(out, users);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.SpringBootDemo.benchmark;
+
+import com.example.SpringBootDemo.SpringBootDemoApplication;
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.service.UserCache;
+import com.example.SpringBootDemo.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserService create and lookup against the in-memory H2 database of a running application
+ *
+ * The application starts once per fork on a random port, with SQL logging off, Kafka listeners and
+ * the outbox relay idle (no broker is needed) and bcrypt at cost 4, so createUser measures the
+ * service, JPA and outbox work rather than password hashing (see BoundedPasswordEncoder for that).
+ * getUserByEmail is measured both as a cache hit and with the user evicted from the UserCache first.
+ * Run with ./gradlew jmh; the gc profiler reports gc.alloc.rate.norm, the bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserServiceBenchmark {
+
+    private static final String EXISTING_EMAIL = "bench.lookup@example.com";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserCache userCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Command-line arguments, so they override application.properties
+        context = new SpringApplicationBuilder(SpringBootDemoApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.SpringBootDemo=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--spring.kafka.listener.auto-startup=false",
+                        "--spring.kafka.admin.auto-create=false",
+                        "--app.outbox.poll-interval-ms=3600000",
+                        "--app.security.password.strength=4");
+        userService = context.getBean(UserService.class);
+        userCache = context.getBean(UserCache.class);
+        userService.createUser(new User("Bench", "Lookup", EXISTING_EMAIL, "1234567890"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User createUser() {
+        long n = sequence.incrementAndGet();
+        User user = new User("Bench", "User" + n, "bench.user" + n + "@example.com", "1234567890");
+        user.setPassword("password" + n);
+        return userService.createUser(user);
+    }
+
+    @Benchmark
+    public User getUserByEmail() {
+        return userService.getUserByEmail(EXISTING_EMAIL);
+    }
+
+    @Benchmark
+    public User getUserByEmailUncached() {
+        userCache.evictByEmail(EXISTING_EMAIL);
+        return userService.getUserByEmail(EXISTING_EMAIL);
+    }
+}
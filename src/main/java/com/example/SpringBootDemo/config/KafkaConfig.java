@@ -1,14 +1,46 @@
 package com.example.SpringBootDemo.config;
 
+import com.example.SpringBootDemo.event.NotificationEvent;
+import com.example.SpringBootDemo.event.NotificationEventDeserializer;
+import com.example.SpringBootDemo.event.NotificationEventSerializer;
+import com.example.SpringBootDemo.event.UserEvent;
+import com.example.SpringBootDemo.event.UserEventDeserializer;
+import com.example.SpringBootDemo.event.UserEventSerializer;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.DelegatingByTopicDeserializer;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Kafka Configuration
  * 
- * This class configures Kafka topics and other Kafka-related settings.
+ * This class configures Kafka topics and other Kafka-related settings:
+ * - Typed events ({@link UserEvent}, {@link NotificationEvent}) in a compact binary format
+ * - Producer batching, linger and compression
+ * - Consumers that skip (rather than retry forever) records they cannot deserialize
+ * - A batch listener container factory with one consumer per partition
  * 
  * @author User Management Team
  * @version 1.0
@@ -18,6 +50,36 @@ public class KafkaConfig {
 
     public static final String USER_EVENTS_TOPIC = "user-events";
     public static final String NOTIFICATIONS_TOPIC = "notifications";
+    public static final String BATCH_LISTENER_FACTORY = "batchListenerContainerFactory";
+
+    /**
+     * Partitions per topic; also the default number of consumers per batch listener
+     */
+    public static final int TOPIC_PARTITIONS = 3;
+
+    /**
+     * Consumer threads per batch listener (more than the partition count would sit idle)
+     */
+    @Value("${app.kafka.consumer.concurrency:" + TOPIC_PARTITIONS + "}")
+    private int consumerConcurrency = TOPIC_PARTITIONS;
+
+    /**
+     * How long the producer waits to fill a batch before sending it
+     */
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int lingerMs = 10;
+
+    /**
+     * Maximum batch size per partition, in bytes
+     */
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int batchSize = 65536;
+
+    /**
+     * Batch compression: none, gzip, snappy, lz4 or zstd
+     */
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String compressionType = "lz4";
 
     /**
      * Create user-events topic
@@ -26,7 +88,7 @@ public class KafkaConfig {
     @Bean
     public NewTopic userEventsTopic() {
         return TopicBuilder.name(USER_EVENTS_TOPIC)
-                .partitions(3)
+                .partitions(TOPIC_PARTITIONS)
                 .replicas(1)
                 .build();
     }
@@ -38,8 +100,80 @@ public class KafkaConfig {
     @Bean
     public NewTopic notificationsTopic() {
         return TopicBuilder.name(NOTIFICATIONS_TOPIC)
-                .partitions(3)
+                .partitions(TOPIC_PARTITIONS)
                 .replicas(1)
                 .build();
     }
+
+    /**
+     * Apply batching/compression settings and the event serializers to the auto-configured producer factory
+     */
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer eventProducerFactoryCustomizer() {
+        return producerFactory -> {
+            producerFactory.updateConfigs(Map.of(
+                    ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                    ProducerConfig.BATCH_SIZE_CONFIG, batchSize,
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType,
+                    // Keeps per-partition order even when batches are retried (the outbox relies on it)
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true));
+
+            @SuppressWarnings("unchecked")
+            DefaultKafkaProducerFactory<Object, Object> factory = (DefaultKafkaProducerFactory<Object, Object>) producerFactory;
+            factory.setValueSerializerSupplier(KafkaConfig::eventSerializer);
+        };
+    }
+
+    /**
+     * Apply the event deserializers to the auto-configured consumer factory
+     */
+    @Bean
+    public DefaultKafkaConsumerFactoryCustomizer eventConsumerFactoryCustomizer() {
+        return consumerFactory -> {
+            @SuppressWarnings("unchecked")
+            DefaultKafkaConsumerFactory<Object, Object> factory = (DefaultKafkaConsumerFactory<Object, Object>) consumerFactory;
+            factory.setValueDeserializerSupplier(KafkaConfig::eventDeserializer);
+        };
+    }
+
+    /**
+     * Container factory for batch listeners
+     * Each poll is handed to the listener as one list and its offsets are committed once the listener returns.
+     */
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(consumerConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    /**
+     * Value serializer chosen by payload type; plain strings are still accepted for ad-hoc messages
+     * and byte arrays for payloads serialized ahead of time (the outbox)
+     */
+    static Serializer<Object> eventSerializer() {
+        Map<Class<?>, Serializer<?>> delegates = new LinkedHashMap<>();
+        delegates.put(UserEvent.class, new UserEventSerializer());
+        delegates.put(NotificationEvent.class, new NotificationEventSerializer());
+        delegates.put(String.class, new StringSerializer());
+        delegates.put(byte[].class, new ByteArraySerializer());
+        return new DelegatingByTypeSerializer(delegates);
+    }
+
+    /**
+     * Value deserializer chosen by topic (strings for any other topic)
+     * Wrapped in an ErrorHandlingDeserializer so a malformed record reaches the error handler once
+     * instead of failing the consumer on every poll.
+     */
+    static Deserializer<Object> eventDeserializer() {
+        Map<Pattern, Deserializer<?>> delegates = new LinkedHashMap<>();
+        delegates.put(Pattern.compile(Pattern.quote(USER_EVENTS_TOPIC)), new UserEventDeserializer());
+        delegates.put(Pattern.compile(Pattern.quote(NOTIFICATIONS_TOPIC)), new NotificationEventDeserializer());
+        return new ErrorHandlingDeserializer<>(new DelegatingByTopicDeserializer(delegates, new StringDeserializer()));
+    }
 }
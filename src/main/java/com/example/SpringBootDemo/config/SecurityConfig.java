@@ -1,12 +1,18 @@
 package com.example.SpringBootDemo.config;
 
+import com.example.SpringBootDemo.security.BoundedPasswordEncoder;
+import com.example.SpringBootDemo.security.MetricsScrapeAuthenticationProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 
 /**
@@ -27,6 +33,27 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableMethodSecurity(prePostEnabled = true, securedEnabled = true, jsr250Enabled = true)
 public class SecurityConfig {
 
+    /**
+     * Configure HTTP Security for the Prometheus scrape endpoint
+     * Scrapers authenticate with HTTP Basic as the app.security.metrics account, which has only the
+     * METRICS role and is not a user of the application. Without a configured password every scrape is refused.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http,
+                                                  @Value("${app.security.metrics.username:prometheus}") String username,
+                                                  @Value("${app.security.metrics.password:}") String password) throws Exception {
+        http
+            .securityMatcher("/actuator/prometheus")
+            .authorizeHttpRequests(authz -> authz.anyRequest().hasRole("METRICS"))
+            .authenticationManager(new ProviderManager(new MetricsScrapeAuthenticationProvider(username, password)))
+            .httpBasic(Customizer.withDefaults())
+            // Every scrape authenticates again; no session per scrape
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        
+        return http.build();
+    }
+
     /**
      * Configure HTTP Security
      */
@@ -43,6 +70,8 @@ public class SecurityConfig {
                 // H2 Console and Actuator (for development)
                 .requestMatchers("/h2-console/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
+                // Other endpoints expose thread stacks, SQL and reset operations (/actuator/prometheus: see metricsFilterChain)
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // Admin-only endpoints
                 .requestMatchers("/admin/**").hasRole("ADMIN")
@@ -111,10 +140,19 @@ public class SecurityConfig {
 
     /**
      * Password Encoder Bean
-     * Uses BCrypt for secure password hashing
+     * Uses BCrypt on a dedicated, bounded hashing pool; the cost is calibrated to
+     * app.security.password.target-ms at startup unless app.security.password.strength is set
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12); // Strength of 12 for good security
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                                 @Value("${app.security.password.strength:0}") int strength,
+                                                 @Value("${app.security.password.target-ms:250}") long targetMillis,
+                                                 @Value("${app.security.password.threads:0}") int threads,
+                                                 @Value("${app.security.password.queue-capacity:100}") int queueCapacity) {
+        int cost = strength > 0 ? strength : BoundedPasswordEncoder.calibrateStrength(targetMillis);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(cost, poolSize, queueCapacity);
+        encoder.bindTo(meterRegistry);
+        return encoder;
     }
 }
@@ -0,0 +1,63 @@
+package com.example.SpringBootDemo.controller;
+
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.security.CustomUserDetails;
+import org.springframework.security.core.Authentication;
+
+import java.util.Objects;
+
+/**
+ * Entity tags for the conditional GET and PATCH endpoints
+ *
+ * Tags are returned unquoted; Spring adds the quotes when writing the ETag header.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Tag of a user representation: its optimistic-lock version, plus the login bookkeeping columns,
+     * which are written without an entity update and so do not advance the version
+     */
+    static String user(User user) {
+        int bookkeeping = Objects.hash(user.getLastLogin(), user.getFailedLoginAttempts(), user.isAccountNonLocked());
+        return user.getVersion() + "." + Integer.toHexString(bookkeeping);
+    }
+
+    /**
+     * Tag of the current-user representation: a session principal is immutable, so its identity
+     * and load time determine the response
+     */
+    static String principal(CustomUserDetails principal) {
+        return principal.getUserId() + "." + Long.toString(principal.getLoadedAt(), 36);
+    }
+
+    /**
+     * Tag of a response that also names the caller (e.g. a requestedBy field)
+     */
+    static String forCaller(String tag, Authentication auth) {
+        return tag + "." + Integer.toHexString(auth.getName().hashCode());
+    }
+
+    /**
+     * Read the user version from an If-Match tag: "3", W/"3" or a full user tag "3.1f2e"
+     * @throws IllegalArgumentException if the tag does not start with a version
+     */
+    static Long version(String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int dot = value.indexOf('.');
+        if (dot >= 0) {
+            value = value.substring(0, dot);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be the user's ETag or version, got " + ifMatch);
+        }
+    }
+}
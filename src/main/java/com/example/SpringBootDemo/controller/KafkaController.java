@@ -1,7 +1,10 @@
 package com.example.SpringBootDemo.controller;
 
+import com.example.SpringBootDemo.event.NotificationEvent;
+import com.example.SpringBootDemo.event.UserEvent;
 import com.example.SpringBootDemo.service.KafkaConsumerService;
 import com.example.SpringBootDemo.service.KafkaProducerService;
+import com.example.SpringBootDemo.service.MessageHistory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -24,6 +27,8 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class KafkaController {
 
+    private static final int MAX_HISTORY_LIMIT = 1000;
+
     private final KafkaProducerService kafkaProducerService;
     private final KafkaConsumerService kafkaConsumerService;
 
@@ -104,41 +109,56 @@ public class KafkaController {
     }
 
     /**
-     * Get consumed user events (for testing)
-     * GET /api/kafka/consumed/user-events
+     * Get consumed user events after a sequence number (for testing)
+     * GET /api/kafka/consumed/user-events?since={sequence}&limit={limit}
+     * Pass the returned nextSince back as since to continue; omit since to start from the oldest retained event.
      */
     @GetMapping("/consumed/user-events")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<Map<String, Object>> getConsumedUserEvents() {
-        List<String> events = kafkaConsumerService.getConsumedUserEvents();
+    public ResponseEntity<Map<String, Object>> getConsumedUserEvents(@RequestParam(value = "since", defaultValue = "-1") long since,
+                                                                     @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        MessageHistory.Page<UserEvent> page = kafkaConsumerService.getConsumedUserEvents(since, clampLimit(limit));
 
-        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> response = historyResponse(page);
         response.put("message", "Retrieved consumed user events");
-        response.put("count", events.size());
-        response.put("events", events);
+        response.put("events", page.entries());
         response.put("topic", "user-events");
 
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Get consumed notifications (for testing)
-     * GET /api/kafka/consumed/notifications
+     * Get consumed notifications after a sequence number (for testing)
+     * GET /api/kafka/consumed/notifications?since={sequence}&limit={limit}
      */
     @GetMapping("/consumed/notifications")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<Map<String, Object>> getConsumedNotifications() {
-        List<String> notifications = kafkaConsumerService.getConsumedNotifications();
+    public ResponseEntity<Map<String, Object>> getConsumedNotifications(@RequestParam(value = "since", defaultValue = "-1") long since,
+                                                                        @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        MessageHistory.Page<NotificationEvent> page = kafkaConsumerService.getConsumedNotifications(since, clampLimit(limit));
 
-        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> response = historyResponse(page);
         response.put("message", "Retrieved consumed notifications");
-        response.put("count", notifications.size());
-        response.put("notifications", notifications);
+        response.put("notifications", page.entries());
         response.put("topic", "notifications");
 
         return ResponseEntity.ok(response);
     }
 
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_HISTORY_LIMIT));
+    }
+
+    private static Map<String, Object> historyResponse(MessageHistory.Page<?> page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", page.entries().size());
+        response.put("nextSince", page.nextSince());
+        response.put("oldestSequence", page.oldestSequence());
+        response.put("latestSequence", page.latestSequence());
+        response.put("truncated", page.truncated());
+        return response;
+    }
+
     /**
      * Clear all consumed messages (for testing)
      * DELETE /api/kafka/consumed/clear
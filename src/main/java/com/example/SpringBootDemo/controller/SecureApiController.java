@@ -1,6 +1,11 @@
 package com.example.SpringBootDemo.controller;
 
+import com.example.SpringBootDemo.dto.CursorPage;
+import com.example.SpringBootDemo.dto.Stamped;
+import com.example.SpringBootDemo.dto.UserSelection;
+import com.example.SpringBootDemo.dto.UserStatistics;
 import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.entity.UserRole;
 import com.example.SpringBootDemo.security.CustomUserDetails;
 import com.example.SpringBootDemo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,10 +13,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.function.IntSupplier;
 
 /**
  * Secure API Controller demonstrating method-level security
@@ -34,11 +40,16 @@ public class SecureApiController {
     /**
      * Get current user information
      * Available to all authenticated users
+     * Built from the session principal; a matching If-None-Match is answered with 304
      */
     @GetMapping("/me")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Map<String, Object>> getCurrentUser(Authentication auth) {
+    public ResponseEntity<Map<String, Object>> getCurrentUser(Authentication auth, WebRequest request) {
         CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
+        String etag = ETags.principal(userDetails);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("user", userDetails.toUser());
@@ -46,20 +57,34 @@ public class SecureApiController {
         response.put("role", userDetails.getRole());
         response.put("message", "Current user information retrieved successfully");
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     /**
-     * Get all users - Admin only
+     * Get all users, one page at a time - Admin only
+     * Pass the returned nextCursor back as the cursor parameter to fetch the following page
      */
     @GetMapping("/admin/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getAllUsers(Authentication auth) {
-        List<User> users = userService.getAllUsers();
-        
+    public ResponseEntity<Map<String, Object>> getAllUsers(@RequestParam(value = "cursor", required = false) String cursor,
+                                                           @RequestParam(value = "size", required = false) Integer size,
+                                                           @RequestParam(value = "sort", required = false) String sort,
+                                                           Authentication auth) {
         Map<String, Object> response = new HashMap<>();
-        response.put("users", users);
-        response.put("count", users.size());
+        
+        CursorPage<User> page;
+        try {
+            page = userService.getUsersPage(cursor, size, sort);
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        response.put("users", page.getItems());
+        response.put("count", page.getItems().size());
+        response.put("pageSize", page.getSize());
+        response.put("nextCursor", page.getNextCursor());
+        response.put("hasMore", page.isHasMore());
         response.put("requestedBy", auth.getName());
         response.put("message", "All users retrieved successfully");
         
@@ -68,31 +93,34 @@ public class SecureApiController {
 
     /**
      * Get user statistics - Admin and Manager only
+     * Served from the short-lived statistics cache; a matching If-None-Match is answered with 304
      */
     @GetMapping("/admin/stats")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<Map<String, Object>> getUserStats(Authentication auth) {
-        List<User> users = userService.getAllUsers();
-        
-        long adminCount = users.stream().filter(u -> u.getRole().name().equals("ADMIN")).count();
-        long managerCount = users.stream().filter(u -> u.getRole().name().equals("MANAGER")).count();
-        long userCount = users.stream().filter(u -> u.getRole().name().equals("USER")).count();
-        long enabledCount = users.stream().filter(User::isEnabled).count();
+    public ResponseEntity<Map<String, Object>> getUserStats(Authentication auth, WebRequest request) {
+        Stamped<UserStatistics> stamped = userService.getStampedUserStatistics();
+        String etag = ETags.forCaller(stamped.getStamp(), auth);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        UserStatistics statistics = stamped.getValue();
         
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalUsers", users.size());
-        stats.put("adminUsers", adminCount);
-        stats.put("managerUsers", managerCount);
-        stats.put("regularUsers", userCount);
-        stats.put("enabledUsers", enabledCount);
-        stats.put("disabledUsers", users.size() - enabledCount);
+        stats.put("totalUsers", statistics.getTotalUsers());
+        stats.put("adminUsers", statistics.getUsersWithRole(UserRole.ADMIN));
+        stats.put("managerUsers", statistics.getUsersWithRole(UserRole.MANAGER));
+        stats.put("regularUsers", statistics.getUsersWithRole(UserRole.USER));
+        stats.put("enabledUsers", statistics.getEnabledUsers());
+        stats.put("disabledUsers", statistics.getDisabledUsers());
+        stats.put("createdLast7Days", statistics.getCreatedLast7Days());
+        stats.put("createdLast30Days", statistics.getCreatedLast30Days());
         
         Map<String, Object> response = new HashMap<>();
         response.put("statistics", stats);
         response.put("requestedBy", auth.getName());
         response.put("message", "User statistics retrieved successfully");
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     /**
@@ -127,11 +155,64 @@ public class SecureApiController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Enable or disable many users at once - Admin only
+     * POST /api/secure/admin/users/bulk/enabled?enabled={true|false}
+     * The body selects the users: {"ids": [...]} or filters such as {"role": "USER", "emailDomain": "example.com"}
+     */
+    @PostMapping("/admin/users/bulk/enabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> bulkSetEnabled(@RequestParam("enabled") boolean enabled,
+                                                              @RequestBody UserSelection selection,
+                                                              Authentication auth) {
+        return bulkUpdate(() -> userService.bulkSetUserEnabled(selection, enabled),
+                enabled ? "Users enabled" : "Users disabled", auth);
+    }
+
+    /**
+     * Lock or unlock many users at once - Admin only
+     * POST /api/secure/admin/users/bulk/locked?locked={true|false}
+     */
+    @PostMapping("/admin/users/bulk/locked")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> bulkSetLocked(@RequestParam("locked") boolean locked,
+                                                             @RequestBody UserSelection selection,
+                                                             Authentication auth) {
+        return bulkUpdate(() -> userService.bulkSetUserLocked(selection, locked),
+                locked ? "Users locked" : "Users unlocked", auth);
+    }
+
+    /**
+     * Change the role of many users at once - Admin only
+     * POST /api/secure/admin/users/bulk/role?role={USER|MANAGER|ADMIN}
+     */
+    @PostMapping("/admin/users/bulk/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> bulkChangeRole(@RequestParam("role") UserRole role,
+                                                              @RequestBody UserSelection selection,
+                                                              Authentication auth) {
+        return bulkUpdate(() -> userService.bulkChangeUserRole(selection, role),
+                "Users changed to role " + role, auth);
+    }
+
+    private ResponseEntity<Map<String, Object>> bulkUpdate(IntSupplier operation, String message, Authentication auth) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("affectedUsers", operation.getAsInt());
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.put("requestedBy", auth.getName());
+        response.put("message", message);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Update user - Users can update their own profile, Admins can update any profile
      */
     @PutMapping("/users/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @userService.isOwner(#id, authentication.name)")
+    @PreAuthorize("hasRole('ADMIN') or @authz.isOwner(authentication, #id)")
     public ResponseEntity<Map<String, Object>> updateUser(@PathVariable Long id, 
                                                           @RequestBody User user, 
                                                           Authentication auth) {
@@ -149,7 +230,7 @@ public class SecureApiController {
      * Get user by ID - Users can view their own profile, Admins and Managers can view any profile
      */
     @GetMapping("/users/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or @userService.isOwner(#id, authentication.name)")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or @authz.isOwner(authentication, #id)")
     public ResponseEntity<Map<String, Object>> getUserById(@PathVariable Long id, Authentication auth) {
         User user = userService.getUserById(id);
         
@@ -167,14 +248,12 @@ public class SecureApiController {
     @GetMapping("/manager/reports")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     public ResponseEntity<Map<String, Object>> getManagerReports(Authentication auth) {
-        List<User> users = userService.getAllUsers();
+        UserStatistics statistics = userService.getUserStatistics();
         
         Map<String, Object> reports = new HashMap<>();
-        reports.put("totalUsers", users.size());
-        reports.put("recentUsers", users.stream()
-                .filter(u -> u.getCreatedAt().isAfter(java.time.LocalDateTime.now().minusDays(30)))
-                .count());
-        reports.put("activeUsers", users.stream().filter(User::isEnabled).count());
+        reports.put("totalUsers", statistics.getTotalUsers());
+        reports.put("recentUsers", statistics.getCreatedLast30Days());
+        reports.put("activeUsers", statistics.getEnabledUsers());
         
         Map<String, Object> response = new HashMap<>();
         response.put("reports", reports);
@@ -189,7 +268,7 @@ public class SecureApiController {
      * Test authorization endpoint - demonstrates complex authorization
      */
     @GetMapping("/test/authorization")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('MANAGER') and @userService.canAccessReports(authentication.name))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('MANAGER') and @authz.canAccessReports(authentication))")
     public ResponseEntity<Map<String, Object>> testAuthorization(Authentication auth) {
         CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
         
@@ -1,13 +1,34 @@
 package com.example.SpringBootDemo.controller;
 
+import com.example.SpringBootDemo.dto.CursorPage;
+import com.example.SpringBootDemo.dto.Stamped;
+import com.example.SpringBootDemo.dto.UserImportResult;
+import com.example.SpringBootDemo.dto.UserPatch;
+import com.example.SpringBootDemo.dto.UserStatistics;
 import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.service.UserChangeStamp;
+import com.example.SpringBootDemo.service.UserExportService;
+import com.example.SpringBootDemo.service.UserImportService;
+import com.example.SpringBootDemo.service.UserNotFoundException;
+import com.example.SpringBootDemo.service.UserSearchIndex;
 import com.example.SpringBootDemo.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,32 +41,125 @@ import java.util.Optional;
 @CrossOrigin(origins = "*") // Allow CORS for frontend integration
 public class UserController {
     
+    private static final int MAX_SEARCH_LIMIT = 500;
+    
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserChangeStamp userChangeStamp;
     
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserExportService userExportService,
+                          UserImportService userImportService, UserChangeStamp userChangeStamp) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
+        this.userChangeStamp = userChangeStamp;
     }
     
     /**
-     * Get all users
-     * GET /api/users
+     * Get users, one page at a time
+     * GET /api/users?cursor={cursor}&size={size}&sort={id|createdAt}
+     * 
+     * The body stays a plain JSON array; the next page is advertised through the
+     * X-Next-Cursor header and a Link header with rel="next".
+     * The ETag is the users table change stamp: a matching If-None-Match is answered with 304 before any query runs.
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(@RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "size", required = false) Integer size,
+                                         @RequestParam(value = "sort", required = false) String sort,
+                                         WebRequest request) {
+        String etag = userChangeStamp.current();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        
+        CursorPage<User> page;
+        try {
+            page = userService.getUsersPage(cursor, size, sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (page.isHasMore()) {
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .replaceQueryParam("size", page.getSize())
+                    .replaceQueryParam("sort")
+                    .toUriString();
+            response.header("X-Next-Cursor", page.getNextCursor());
+            response.header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+    
+    /**
+     * Stream the whole user directory for bulk consumers (e.g. nightly sync jobs) - Admin only
+     * GET /api/users/export?format={ndjson|csv}
+     * 
+     * Rows are written as they are read from the database, so the response starts
+     * immediately and memory use does not depend on the number of users.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(value = "format", required = false) String format) {
+        UserExportService.Format exportFormat;
+        try {
+            exportFormat = UserExportService.Format.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        
+        StreamingResponseBody body = out -> userExportService.exportUsers(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
+    /**
+     * Create users in bulk - Admin only
+     * POST /api/users/import
+     * 
+     * The body is a JSON array of users (application/json) or CSV with a header row (text/csv,
+     * columns firstName, lastName, email, phone, password, role). Valid rows are created;
+     * the response lists every rejected row with its row number and the reason.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         InputStream body) throws IOException {
+        try {
+            UserImportResult result = userImportService.importUsers(UserImportService.Format.fromContentType(contentType), body);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Some of the users were created concurrently, retry the import"));
+        }
     }
     
     /**
      * Get user by ID
      * GET /api/users/{id}
+     * 
+     * The ETag changes with every change to the user; a matching If-None-Match is answered with 304
+     * without serializing the user.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<User> getUserById(@PathVariable Long id, WebRequest request) {
         Optional<User> user = userService.findUserById(id);
-        return user.map(ResponseEntity::ok)
-                  .orElse(ResponseEntity.notFound().build());
+        if (user.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ETags.user(user.get());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(user.get());
     }
     
     /**
@@ -76,6 +190,42 @@ public class UserController {
         }
     }
     
+    /**
+     * Partially update a user
+     * PATCH /api/users/{id}
+     *
+     * Only the fields present in the body are changed. The client must send the version it last read,
+     * either as the "version" field or as an If-Match header (the ETag of GET /api/users/{id});
+     * a stale version is answered with 409. The response carries the new ETag.
+     * Users may patch their own account except for the role; admins may patch any account.
+     */
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or (@authz.isOwner(authentication, #id) and #patch.role == null)")
+    public ResponseEntity<?> patchUser(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       @Valid @RequestBody UserPatch patch) {
+        try {
+            if (patch.getVersion() == null && ifMatch != null) {
+                patch.setVersion(ETags.version(ifMatch));
+            }
+            if (patch.getVersion() == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                        .body(new ErrorResponse("Send the version of the user being patched (version field or If-Match header)"));
+            }
+            User patchedUser = userService.patchUser(id, patch);
+            return ResponseEntity.ok()
+                    .eTag(ETags.user(patchedUser))
+                    .body(patchedUser);
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("User " + id + " was modified concurrently, reload it and retry"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Delete a user
      * DELETE /api/users/{id}
@@ -91,15 +241,30 @@ public class UserController {
     }
     
     /**
-     * Search users by name
-     * GET /api/users/search?name={searchTerm}
+     * Search users by name, best matches first
+     * GET /api/users/search?name={searchTerm}&limit={limit}
+     * Without a limit, every matching user is returned.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam("name") String searchTerm) {
-        List<User> users = userService.searchUsersByName(searchTerm);
+    public ResponseEntity<List<User>> searchUsers(@RequestParam("name") String searchTerm,
+                                                  @RequestParam(value = "limit", required = false) Integer limit) {
+        List<User> users = limit != null
+                ? userService.searchUsersByName(searchTerm, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)))
+                : userService.searchUsersByName(searchTerm);
         return ResponseEntity.ok(users);
     }
     
+    /**
+     * Typeahead suggestions by name or email
+     * GET /api/users/search/suggest?q={prefix}&limit={limit}
+     */
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<UserSearchIndex.Entry>> suggestUsers(@RequestParam("q") String prefix,
+                                                                    @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<UserSearchIndex.Entry> suggestions = userService.suggestUsers(prefix, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+        return ResponseEntity.ok(suggestions);
+    }
+    
     /**
      * Get user by email
      * GET /api/users/email/{email}
@@ -121,15 +286,29 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
     
+    /**
+     * Count users by email domain
+     * GET /api/users/domain/{domain}/count
+     */
+    @GetMapping("/domain/{domain}/count")
+    public ResponseEntity<DomainStats> countUsersByDomain(@PathVariable String domain) {
+        long count = userService.countUsersByEmailDomain(domain);
+        return ResponseEntity.ok(new DomainStats(domain, count));
+    }
+    
     /**
      * Get user statistics
      * GET /api/users/stats
      */
     @GetMapping("/stats")
-    public ResponseEntity<UserStats> getUserStats() {
-        long totalUsers = userService.getTotalUserCount();
-        UserStats stats = new UserStats(totalUsers);
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<UserStats> getUserStats(WebRequest request) {
+        // Served from the short-lived statistics cache, tagged with the users table change stamp
+        Stamped<UserStatistics> statistics = userService.getStampedUserStatistics();
+        if (request.checkNotModified(statistics.getStamp())) {
+            return null;
+        }
+        UserStats stats = new UserStats(statistics.getValue().getTotalUsers());
+        return ResponseEntity.ok().eTag(statistics.getStamp()).body(stats);
     }
     
     /**
@@ -190,4 +369,30 @@ public class UserController {
             this.totalUsers = totalUsers;
         }
     }
+    
+    public static class DomainStats {
+        private String domain;
+        private long userCount;
+        
+        public DomainStats(String domain, long userCount) {
+            this.domain = domain;
+            this.userCount = userCount;
+        }
+        
+        public String getDomain() {
+            return domain;
+        }
+        
+        public void setDomain(String domain) {
+            this.domain = domain;
+        }
+        
+        public long getUserCount() {
+            return userCount;
+        }
+        
+        public void setUserCount(long userCount) {
+            this.userCount = userCount;
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.SpringBootDemo.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) paginated listing
+ *
+ * The next cursor is an opaque token: clients pass it back unchanged to get the following page.
+ *
+ * @param <T> the type of the page items
+ * @author User Management Team
+ * @version 1.0
+ */
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final int size;
+
+    public CursorPage(List<T> items, String nextCursor, int size) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Get the continuation token for the next page, or null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Get the page size that was applied to this request
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
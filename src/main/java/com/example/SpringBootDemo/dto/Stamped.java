@@ -0,0 +1,29 @@
+package com.example.SpringBootDemo.dto;
+
+/**
+ * A value together with a stamp identifying that exact value
+ *
+ * Two reads with the same stamp returned the same value, so the stamp can serve as an ETag.
+ *
+ * @param <T> the type of the value
+ * @author User Management Team
+ * @version 1.0
+ */
+public class Stamped<T> {
+
+    private final T value;
+    private final String stamp;
+
+    public Stamped(T value, String stamp) {
+        this.value = value;
+        this.stamp = stamp;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public String getStamp() {
+        return stamp;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.SpringBootDemo.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import
+ *
+ * Valid rows are imported together; every rejected row is listed with its row number
+ * (1-based, not counting a CSV header) and the reason.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+public class UserImportResult {
+
+    /**
+     * A rejected row
+     */
+    public record RowError(int row, String email, String message) {
+    }
+
+    private final int received;
+    private int imported;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public UserImportResult(int received) {
+        this.received = received;
+    }
+
+    public void addError(int row, String email, String message) {
+        errors.add(new RowError(row, email, message));
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getFailed() {
+        return errors.size();
+    }
+
+    /**
+     * Get the rejected rows, in row order
+     */
+    public List<RowError> getErrors() {
+        return errors.stream().sorted(Comparator.comparingInt(RowError::row)).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.SpringBootDemo.dto;
+
+import com.example.SpringBootDemo.entity.UserRole;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Partial update of a user, as sent to PATCH /api/users/{id}
+ *
+ * Only non-null fields are applied; the rest of the user is left untouched.
+ * The version is the one the client last read. If the user has changed since, the patch is rejected.
+ * A supplied text field must not be blank: the user's own @NotBlank checks only run at flush.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+public class UserPatch {
+
+    // Null is valid for @Pattern, so absent fields still pass
+    private static final String NOT_BLANK = "(?s).*\\S.*";
+
+    @Size(min = 2, max = 50, message = "First name must be between 2 and 50 characters")
+    @Pattern(regexp = NOT_BLANK, message = "First name must not be blank")
+    private String firstName;
+
+    @Size(min = 2, max = 50, message = "Last name must be between 2 and 50 characters")
+    @Pattern(regexp = NOT_BLANK, message = "Last name must not be blank")
+    private String lastName;
+
+    @Email(message = "Email should be valid")
+    @Pattern(regexp = NOT_BLANK, message = "Email must not be blank")
+    private String email;
+
+    @Size(min = 10, max = 15, message = "Phone number must be between 10 and 15 characters")
+    private String phone;
+
+    @Size(min = 1, message = "Password must not be empty")
+    private String password;
+
+    private UserRole role;
+
+    private Long version;
+
+    public UserPatch() {}
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public void setRole(UserRole role) {
+        this.role = role;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.SpringBootDemo.dto;
+
+import com.example.SpringBootDemo.entity.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Selects the users a bulk admin operation applies to
+ *
+ * Either a list of IDs or any combination of filters (role, email domain, creation range);
+ * all given criteria must match. An empty selection is rejected rather than treated as "everyone".
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+public class UserSelection {
+
+    private List<Long> ids;
+    private UserRole role;
+    private String emailDomain;
+    private LocalDateTime createdAfter;
+    private LocalDateTime createdBefore;
+
+    public UserSelection() {}
+
+    public static UserSelection ofIds(List<Long> ids) {
+        UserSelection selection = new UserSelection();
+        selection.setIds(ids);
+        return selection;
+    }
+
+    /**
+     * A copy of this selection with other IDs and the same filters
+     */
+    public UserSelection withIds(List<Long> ids) {
+        UserSelection selection = new UserSelection();
+        selection.ids = ids;
+        selection.role = role;
+        selection.emailDomain = emailDomain;
+        selection.createdAfter = createdAfter;
+        selection.createdBefore = createdBefore;
+        return selection;
+    }
+
+    /**
+     * Whether no criterion is set
+     */
+    public boolean isEmpty() {
+        return (ids == null || ids.isEmpty()) && role == null && emailDomain == null
+                && createdAfter == null && createdBefore == null;
+    }
+
+    /**
+     * Human-readable summary, used in event details and logs
+     */
+    public String describe() {
+        List<String> parts = new ArrayList<>();
+        if (ids != null && !ids.isEmpty()) {
+            parts.add(ids.size() + " ids");
+        }
+        if (role != null) {
+            parts.add("role=" + role);
+        }
+        if (emailDomain != null) {
+            parts.add("emailDomain=" + emailDomain);
+        }
+        if (createdAfter != null) {
+            parts.add("createdAfter=" + createdAfter);
+        }
+        if (createdBefore != null) {
+            parts.add("createdBefore=" + createdBefore);
+        }
+        return String.join(", ", parts);
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public void setRole(UserRole role) {
+        this.role = role;
+    }
+
+    /**
+     * Get the email domain filter, normalized like User.getEmailDomain()
+     */
+    public String getEmailDomain() {
+        return emailDomain;
+    }
+
+    public void setEmailDomain(String emailDomain) {
+        this.emailDomain = emailDomain == null || emailDomain.isBlank()
+                ? null : emailDomain.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get the inclusive lower bound on the creation time
+     */
+    public LocalDateTime getCreatedAfter() {
+        return createdAfter;
+    }
+
+    public void setCreatedAfter(LocalDateTime createdAfter) {
+        this.createdAfter = createdAfter;
+    }
+
+    /**
+     * Get the exclusive upper bound on the creation time
+     */
+    public LocalDateTime getCreatedBefore() {
+        return createdBefore;
+    }
+
+    public void setCreatedBefore(LocalDateTime createdBefore) {
+        this.createdBefore = createdBefore;
+    }
+}
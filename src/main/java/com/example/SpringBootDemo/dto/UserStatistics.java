@@ -0,0 +1,72 @@
+package com.example.SpringBootDemo.dto;
+
+import com.example.SpringBootDemo.entity.UserRole;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Aggregated user counts for admin statistics and manager reports
+ *
+ * Built from a single GROUP BY query, so its size does not depend on the number of users.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+public class UserStatistics {
+
+    private final Map<UserRole, Long> usersByRole = new EnumMap<>(UserRole.class);
+    private long totalUsers;
+    private long enabledUsers;
+    private long createdLast7Days;
+    private long createdLast30Days;
+
+    public UserStatistics() {
+        for (UserRole role : UserRole.values()) {
+            usersByRole.put(role, 0L);
+        }
+    }
+
+    /**
+     * Add the counts of one (role, enabled) group
+     */
+    public void addGroup(UserRole role, boolean enabled, long total, long createdLast7Days, long createdLast30Days) {
+        if (role != null) {
+            usersByRole.merge(role, total, Long::sum);
+        }
+        this.totalUsers += total;
+        if (enabled) {
+            this.enabledUsers += total;
+        }
+        this.createdLast7Days += createdLast7Days;
+        this.createdLast30Days += createdLast30Days;
+    }
+
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public long getUsersWithRole(UserRole role) {
+        return usersByRole.get(role);
+    }
+
+    public Map<UserRole, Long> getUsersByRole() {
+        return usersByRole;
+    }
+
+    public long getEnabledUsers() {
+        return enabledUsers;
+    }
+
+    public long getDisabledUsers() {
+        return totalUsers - enabledUsers;
+    }
+
+    public long getCreatedLast7Days() {
+        return createdLast7Days;
+    }
+
+    public long getCreatedLast30Days() {
+        return createdLast30Days;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.SpringBootDemo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Number of users per email domain
+ * Kept current on user create/update/delete so per-domain counts are a single-row read
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "email_domain_counts")
+public class EmailDomainCount {
+
+    @Id
+    @Column(name = "domain")
+    private String domain;
+
+    @Column(name = "user_count", nullable = false)
+    private long userCount;
+
+    // Default constructor (required by JPA)
+    public EmailDomainCount() {}
+
+    public EmailDomainCount(String domain, long userCount) {
+        this.domain = domain;
+        this.userCount = userCount;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    @Override
+    public String toString() {
+        return "EmailDomainCount{" +
+                "domain='" + domain + '\'' +
+                ", userCount=" + userCount +
+                '}';
+    }
+}
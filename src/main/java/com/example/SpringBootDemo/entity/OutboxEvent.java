@@ -0,0 +1,136 @@
+package com.example.SpringBootDemo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Kafka record waiting to be published (transactional outbox)
+ * Written in the same transaction as the change it describes and published afterwards by OutboxRelay,
+ * so only committed changes produce events. The payload is the already-serialized record value.
+ * An event whose send keeps failing is parked after a number of attempts and no longer published.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        // The relay polls "sent_at IS NULL AND parked_at IS NULL ORDER BY id"
+        @Index(name = "idx_outbox_events_sent_at_id", columnList = "sent_at, id")
+})
+public class OutboxEvent {
+
+    @Id
+    // Pooled sequence so events written together (e.g. by a bulk import) are batch-inserted
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "payload", nullable = false, length = 65536)
+    private byte[] payload;
+
+    @Column(name = "schema_version", nullable = false)
+    private int schemaVersion;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    // Failed sends so far
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // Set while a relay is publishing the event; other relays leave it alone until then
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    // Set when the event was given up on after too many failed sends
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+
+    // Default constructor (required by JPA)
+    public OutboxEvent() {}
+
+    public OutboxEvent(String topic, String messageKey, byte[] payload, int schemaVersion) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payload = payload;
+        this.schemaVersion = schemaVersion;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public String getMessageKey() {
+        return messageKey;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public int getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public LocalDateTime getParkedAt() {
+        return parkedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", topic='" + topic + '\'' +
+                ", messageKey='" + messageKey + '\'' +
+                ", createdAt=" + createdAt +
+                ", sentAt=" + sentAt +
+                ", attempts=" + attempts +
+                ", parkedAt=" + parkedAt +
+                '}';
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.SpringBootDemo.entity;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -13,24 +14,38 @@ public enum UserRole {
     /**
      * Regular user with basic permissions
      */
-    USER("User", "Basic user with limited access"),
+    USER("User", "Basic user with limited access",
+            "READ_USERS", "USER_ACCESS"),
     
     /**
      * Manager with elevated permissions
      */
-    MANAGER("Manager", "Manager with user management capabilities"),
+    MANAGER("Manager", "Manager with user management capabilities",
+            "READ_USERS", "WRITE_USERS", "MANAGER_ACCESS"),
     
     /**
      * Administrator with full permissions
      */
-    ADMIN("Administrator", "Administrator with full system access");
+    ADMIN("Administrator", "Administrator with full system access",
+            "READ_USERS", "WRITE_USERS", "DELETE_USERS", "ADMIN_ACCESS");
     
     private final String displayName;
     private final String description;
+    private final String authority;
+    private final Set<String> authorities;
     
-    UserRole(String displayName, String description) {
+    UserRole(String displayName, String description, String... permissions) {
         this.displayName = displayName;
         this.description = description;
+        this.authority = ("ROLE_" + name()).intern();
+        
+        // Built once per role; callers share the same immutable set
+        Set<String> all = new LinkedHashSet<>();
+        all.add(authority);
+        for (String permission : permissions) {
+            all.add(permission.intern());
+        }
+        this.authorities = Collections.unmodifiableSet(all);
     }
     
     public String getDisplayName() {
@@ -45,35 +60,14 @@ public enum UserRole {
      * Get role with ROLE_ prefix for Spring Security
      */
     public String getAuthority() {
-        return "ROLE_" + this.name();
+        return authority;
     }
     
     /**
-     * Get all authorities for this role
+     * Get all authorities for this role (the role authority first, then its permissions)
+     * @return an immutable set shared by all callers
      */
     public Set<String> getAuthorities() {
-        Set<String> authorities = new HashSet<>();
-        authorities.add("ROLE_" + this.name());
-        
-        // Add role-specific authorities
-        switch (this) {
-            case ADMIN:
-                authorities.add("READ_USERS");
-                authorities.add("WRITE_USERS");
-                authorities.add("DELETE_USERS");
-                authorities.add("ADMIN_ACCESS");
-                break;
-            case MANAGER:
-                authorities.add("READ_USERS");
-                authorities.add("WRITE_USERS");
-                authorities.add("MANAGER_ACCESS");
-                break;
-            case USER:
-                authorities.add("READ_USERS");
-                authorities.add("USER_ACCESS");
-                break;
-        }
-        
         return authorities;
     }
 }
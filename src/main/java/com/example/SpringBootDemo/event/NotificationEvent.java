@@ -0,0 +1,29 @@
+package com.example.SpringBootDemo.event;
+
+import java.util.UUID;
+
+/**
+ * Event published to the notifications topic
+ *
+ * @param eventId unique ID of this event (for de-duplication)
+ * @param recipient email address of the recipient (also the record key)
+ * @param subject notification subject
+ * @param content notification body
+ * @param timestamp when the event was created, in epoch milliseconds
+ * @param version the event schema version
+ */
+public record NotificationEvent(UUID eventId,
+                                String recipient,
+                                String subject,
+                                String content,
+                                long timestamp,
+                                int version) {
+
+    /**
+     * Create a new notification with a fresh ID and the current time
+     */
+    public static NotificationEvent of(String recipient, String subject, String content) {
+        return new NotificationEvent(UUID.randomUUID(), recipient, subject, content,
+                System.currentTimeMillis(), EventCodec.SCHEMA_VERSION);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.SpringBootDemo.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.UUID;
+
+/**
+ * Kafka deserializer reading {@link NotificationEvent}s written by {@link NotificationEventSerializer}
+ * Records without a supported schema version header are rejected.
+ */
+public class NotificationEventDeserializer implements Deserializer<NotificationEvent> {
+
+    @Override
+    public NotificationEvent deserialize(String topic, Headers headers, byte[] data) {
+        int version = EventCodec.readSchemaVersion(headers);
+        if (data == null) {
+            return null;
+        }
+        EventCodec.Reader reader = new EventCodec.Reader(data);
+        UUID eventId = reader.readUuid();
+        long timestamp = reader.readVarLong();
+        String recipient = reader.readString();
+        String subject = reader.readString();
+        String content = reader.readString();
+        return new NotificationEvent(eventId, recipient, subject, content, timestamp, version);
+    }
+
+    @Override
+    public NotificationEvent deserialize(String topic, byte[] data) {
+        throw new SerializationException("Notifications require the " + EventCodec.SCHEMA_VERSION_HEADER + " header");
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.SpringBootDemo.event;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing {@link NotificationEvent}s in the compact {@link EventCodec} format
+ */
+public class NotificationEventSerializer implements Serializer<NotificationEvent> {
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, NotificationEvent event) {
+        EventCodec.writeSchemaVersion(headers);
+        return serialize(topic, event);
+    }
+
+    @Override
+    public byte[] serialize(String topic, NotificationEvent event) {
+        if (event == null) {
+            return null;
+        }
+        EventCodec.Writer writer = new EventCodec.Writer(128);
+        writer.writeUuid(event.eventId());
+        writer.writeVarLong(event.timestamp());
+        writer.writeString(event.recipient());
+        writer.writeString(event.subject());
+        writer.writeString(event.content());
+        return writer.toByteArray();
+    }
+}
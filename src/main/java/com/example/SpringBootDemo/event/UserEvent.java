@@ -0,0 +1,64 @@
+package com.example.SpringBootDemo.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Event published to the user-events topic
+ *
+ * @param eventId unique ID of this event (for de-duplication)
+ * @param eventType what happened, e.g. USER_CREATED, USER_UPDATED, USER_DELETED
+ * @param userId ID of the affected user (also the record key); for USERS_UPDATED, the comma-separated
+ *               IDs of the changed users, or null when a filter selected them
+ * @param userDetails human-readable description
+ * @param timestamp when the event was created, in epoch milliseconds
+ * @param version the event schema version
+ */
+public record UserEvent(UUID eventId,
+                        String eventType,
+                        String userId,
+                        String userDetails,
+                        long timestamp,
+                        int version) {
+
+    /**
+     * Create a new event with a fresh ID and the current time
+     */
+    public static UserEvent of(String eventType, String userId, String userDetails) {
+        return new UserEvent(UUID.randomUUID(), eventType, userId, userDetails,
+                System.currentTimeMillis(), EventCodec.SCHEMA_VERSION);
+    }
+
+    /**
+     * Create a USERS_UPDATED event for a bulk change
+     * @param userIds the changed users, or an empty list when a filter selected them
+     */
+    public static UserEvent usersUpdated(List<Long> userIds, String userDetails) {
+        String ids = userIds.isEmpty() ? null : userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return of("USERS_UPDATED", ids, userDetails);
+    }
+
+    /**
+     * The record key: the user ID, none for USERS_UPDATED (which may name many users)
+     */
+    public String key() {
+        return "USERS_UPDATED".equals(eventType) ? null : userId;
+    }
+
+    /**
+     * The IDs in the userId field: one for single-user events, any number for USERS_UPDATED
+     * @return the IDs, empty if the field is null
+     * @throws NumberFormatException if the field is not a list of IDs
+     */
+    public List<Long> userIds() {
+        List<Long> ids = new ArrayList<>();
+        if (userId != null) {
+            for (String id : userId.split(",")) {
+                ids.add(Long.valueOf(id.trim()));
+            }
+        }
+        return ids;
+    }
+}
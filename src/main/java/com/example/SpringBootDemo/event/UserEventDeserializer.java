@@ -0,0 +1,34 @@
+package com.example.SpringBootDemo.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.UUID;
+
+/**
+ * Kafka deserializer reading {@link UserEvent}s written by {@link UserEventSerializer}
+ * Records without a supported schema version header are rejected.
+ */
+public class UserEventDeserializer implements Deserializer<UserEvent> {
+
+    @Override
+    public UserEvent deserialize(String topic, Headers headers, byte[] data) {
+        int version = EventCodec.readSchemaVersion(headers);
+        if (data == null) {
+            return null;
+        }
+        EventCodec.Reader reader = new EventCodec.Reader(data);
+        UUID eventId = reader.readUuid();
+        long timestamp = reader.readVarLong();
+        String eventType = reader.readString();
+        String userId = reader.readString();
+        String userDetails = reader.readString();
+        return new UserEvent(eventId, eventType, userId, userDetails, timestamp, version);
+    }
+
+    @Override
+    public UserEvent deserialize(String topic, byte[] data) {
+        throw new SerializationException("User events require the " + EventCodec.SCHEMA_VERSION_HEADER + " header");
+    }
+}
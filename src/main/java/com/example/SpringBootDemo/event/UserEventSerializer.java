@@ -0,0 +1,30 @@
+package com.example.SpringBootDemo.event;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing {@link UserEvent}s in the compact {@link EventCodec} format
+ */
+public class UserEventSerializer implements Serializer<UserEvent> {
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, UserEvent event) {
+        EventCodec.writeSchemaVersion(headers);
+        return serialize(topic, event);
+    }
+
+    @Override
+    public byte[] serialize(String topic, UserEvent event) {
+        if (event == null) {
+            return null;
+        }
+        EventCodec.Writer writer = new EventCodec.Writer(64);
+        writer.writeUuid(event.eventId());
+        writer.writeVarLong(event.timestamp());
+        writer.writeString(event.eventType());
+        writer.writeString(event.userId());
+        writer.writeString(event.userDetails());
+        return writer.toByteArray();
+    }
+}
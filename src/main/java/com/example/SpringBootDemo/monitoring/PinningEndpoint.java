@@ -0,0 +1,48 @@
+package com.example.SpringBootDemo.monitoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint reporting virtual-thread pinning
+ * GET /actuator/pinning - pin count, the worst sites with a sample stack, and the most recent pins
+ * DELETE /actuator/pinning - start a fresh measurement
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinningEndpoint {
+
+    private final VirtualThreadPinningMonitor monitor;
+
+    @Autowired
+    public PinningEndpoint(VirtualThreadPinningMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @ReadOperation
+    public Map<String, Object> pinning() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("thresholdMs", monitor.getThreshold().toMillis());
+        report.put("totalPinned", monitor.getTotalPinned());
+        report.put("sites", monitor.getSites());
+        report.put("recent", monitor.getRecentEvents());
+        return report;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        monitor.reset();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.SpringBootDemo.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * The last few diagnostic events, dropping the oldest once full
+ *
+ * Diagnostic events (pins, slow statements, findings) are rare, so a synchronized deque is enough;
+ * readers get a copy and never see the buffer change under them.
+ *
+ * @param <T> the event type
+ * @author User Management Team
+ * @version 1.0
+ */
+class RecentEvents<T> {
+
+    private final ArrayDeque<T> events;
+    private final int capacity;
+
+    /**
+     * @param capacity the number of events kept
+     */
+    RecentEvents(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.events = new ArrayDeque<>(capacity);
+    }
+
+    synchronized void add(T event) {
+        if (events.size() == capacity) {
+            events.removeFirst();
+        }
+        events.addLast(event);
+    }
+
+    /**
+     * The retained events, oldest first
+     */
+    synchronized List<T> snapshot() {
+        return List.copyOf(events);
+    }
+
+    synchronized void clear() {
+        events.clear();
+    }
+}
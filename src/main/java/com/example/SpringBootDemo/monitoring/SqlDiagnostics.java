@@ -0,0 +1,299 @@
+package com.example.SpringBootDemo.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Sampled, structured SQL diagnostics, replacing per-statement SQL logging
+ *
+ * Every JDBC statement (JPA and JdbcTemplate alike, see {@link SqlDiagnosticsDataSourceWrapper}) is
+ * timed and aggregated by SQL text. Only statements slower than the threshold are logged (WARN), plus
+ * a random sample of the rest (INFO); bound parameter values are never logged.
+ *
+ * Within a request ({@link SqlDiagnosticsFilter}) the statements are counted by SQL text. When the same
+ * statement runs at least repeat-threshold times, the request is reported: as a likely N+1 when the
+ * executions are one uninterrupted run of the same SELECT (a loop loading one row or collection at a
+ * time), otherwise as a repeated query.
+ *
+ * The results are exposed through the "sql" actuator endpoint, together with Hibernate's statistics.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlDiagnostics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlDiagnostics.class);
+
+    static final String N_PLUS_ONE = "n_plus_one";
+    static final String REPEATED = "repeated";
+
+    /**
+     * Bucket for statements beyond max-statements distinct SQL texts
+     */
+    static final String OTHER_STATEMENTS = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    /**
+     * One statement slower than the threshold
+     */
+    public record SlowStatement(Instant time, String request, long durationMicros, String sql) {
+    }
+
+    /**
+     * A statement executed repeatedly within one request
+     */
+    public record Finding(Instant time, String request, String kind, int executions, String sql) {
+    }
+
+    /**
+     * Aggregated executions of one SQL text
+     */
+    public static final class StatementStats {
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private StatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalMillis() {
+            return Duration.ofNanos(totalNanos.sum()).toMillis();
+        }
+
+        public long getMeanMicros() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / n / 1000;
+        }
+
+        public long getMaxMillis() {
+            return Duration.ofNanos(maxNanos.get()).toMillis();
+        }
+    }
+
+    /**
+     * Statements of the request running on the current thread
+     */
+    private static final class RequestScope {
+        private final String request;
+        private final Map<String, Integer> executions = new HashMap<>();
+        private final Map<String, Integer> longestRuns = new HashMap<>();
+        private String lastSql;
+        private int run;
+
+        private RequestScope(String request) {
+            this.request = request;
+        }
+
+        private void record(String sql) {
+            executions.merge(sql, 1, Integer::sum);
+            run = sql.equals(lastSql) ? run + 1 : 1;
+            lastSql = sql;
+            longestRuns.merge(sql, run, Math::max);
+        }
+    }
+
+    private final ThreadLocal<RequestScope> currentScope = new ThreadLocal<>();
+    private final ConcurrentHashMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final RecentEvents<SlowStatement> slowStatements;
+    private final RecentEvents<Finding> findings;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final int repeatThreshold;
+    private final int maxStatements;
+
+    private final Timer statementTimer;
+    private final Counter slowCounter;
+    private final Counter nPlusOneCounter;
+    private final Counter repeatedCounter;
+
+    @Autowired
+    public SqlDiagnostics(MeterRegistry meterRegistry,
+                          @Value("${app.sql.slow-threshold-ms:200}") long slowThresholdMillis,
+                          @Value("${app.sql.sample-rate:0.001}") double sampleRate,
+                          @Value("${app.sql.repeat-threshold:10}") int repeatThreshold,
+                          @Value("${app.sql.max-statements:500}") int maxStatements,
+                          @Value("${app.sql.recent-capacity:256}") int recentCapacity) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.sampleRate = sampleRate;
+        this.repeatThreshold = repeatThreshold;
+        this.maxStatements = maxStatements;
+        this.slowStatements = new RecentEvents<>(recentCapacity);
+        this.findings = new RecentEvents<>(recentCapacity);
+
+        this.statementTimer = Timer.builder("sql.statements")
+                .description("JDBC statement execution time")
+                .register(meterRegistry);
+        this.slowCounter = Counter.builder("sql.statements.slow")
+                .description("JDBC statements slower than app.sql.slow-threshold-ms")
+                .register(meterRegistry);
+        this.nPlusOneCounter = findingCounter(N_PLUS_ONE, meterRegistry);
+        this.repeatedCounter = findingCounter(REPEATED, meterRegistry);
+    }
+
+    private static Counter findingCounter(String kind, MeterRegistry meterRegistry) {
+        return Counter.builder("sql.findings")
+                .description("Requests executing the same statement at least app.sql.repeat-threshold times")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start collecting the statements of a request on the current thread
+     * @param request a description of the request, e.g. "GET /api/users"
+     */
+    public void beginRequest(String request) {
+        currentScope.set(new RequestScope(request));
+    }
+
+    /**
+     * Stop collecting on the current thread and report statements the request executed repeatedly
+     */
+    public void endRequest() {
+        RequestScope scope = currentScope.get();
+        currentScope.remove();
+        if (scope == null) {
+            return;
+        }
+        scope.executions.forEach((sql, executions) -> {
+            if (executions < repeatThreshold) {
+                return;
+            }
+            boolean nPlusOne = isSelect(sql) && scope.longestRuns.get(sql) >= repeatThreshold;
+            findings.add(new Finding(Instant.now(), scope.request, nPlusOne ? N_PLUS_ONE : REPEATED, executions, sql));
+            (nPlusOne ? nPlusOneCounter : repeatedCounter).increment();
+            logger.warn("{} in {}: {} executions of {}",
+                    nPlusOne ? "Likely N+1 query" : "Repeated query", scope.request, executions, sql);
+        });
+    }
+
+    /**
+     * Record one executed statement
+     * @param sql the SQL text, with ? placeholders for prepared statements
+     * @param prepared whether the SQL came from a prepared statement (otherwise literals are masked)
+     * @param nanos the execution time
+     */
+    public void record(String sql, boolean prepared, long nanos) {
+        String text = sql == null ? "(unknown)" : prepared ? sql : maskLiterals(sql);
+        statementTimer.record(nanos, TimeUnit.NANOSECONDS);
+        stats(text).record(nanos);
+
+        RequestScope scope = currentScope.get();
+        if (scope != null) {
+            scope.record(text);
+        }
+        String request = scope != null ? scope.request : "-";
+
+        if (nanos >= slowThresholdNanos) {
+            slowCounter.increment();
+            slowStatements.add(new SlowStatement(Instant.now(), request, nanos / 1000, text));
+            logger.warn("Slow SQL ({} ms) in {}: {}", TimeUnit.NANOSECONDS.toMillis(nanos), request, text);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.info("Sampled SQL ({} µs) in {}: {}", nanos / 1000, request, text);
+        }
+    }
+
+    private StatementStats stats(String sql) {
+        StatementStats stats = statements.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        // Bounded: unusual statements (e.g. IN lists of every size) share one bucket
+        String key = statements.size() < maxStatements ? sql : OTHER_STATEMENTS;
+        return statements.computeIfAbsent(key, StatementStats::new);
+    }
+
+    static String maskLiterals(String sql) {
+        String masked = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMBER_LITERAL.matcher(masked).replaceAll("?");
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getRepeatThreshold() {
+        return repeatThreshold;
+    }
+
+    /**
+     * The statements taking the most time in total, first
+     */
+    public List<StatementStats> getTopStatements(int limit) {
+        List<StatementStats> sorted = new ArrayList<>(statements.values());
+        sorted.sort(Comparator.comparingLong((StatementStats s) -> s.totalNanos.sum()).reversed());
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    /**
+     * The most recent slow statements, oldest first
+     */
+    public List<SlowStatement> getSlowStatements() {
+        return slowStatements.snapshot();
+    }
+
+    /**
+     * The most recent N+1 and repeated-query findings, oldest first
+     */
+    public List<Finding> getFindings() {
+        return findings.snapshot();
+    }
+
+    /**
+     * Forget aggregated statements, slow statements and findings (the meters keep counting)
+     */
+    public void reset() {
+        statements.clear();
+        slowStatements.clear();
+        findings.clear();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.SpringBootDemo.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Wraps the DataSource so every JDBC statement execution is reported to {@link SqlDiagnostics}
+ *
+ * Connections and statements are JDK proxies around the pool's own objects: the SQL passed to
+ * prepareStatement/prepareCall (or to execute/addBatch on a plain Statement) is remembered, and
+ * each execute call is timed. unwrap() still reaches the pool, so pool metrics keep working.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlDiagnosticsDataSourceWrapper implements BeanPostProcessor {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final Set<String> STATEMENT_FACTORY_METHODS = Set.of(
+            "createStatement", "prepareStatement", "prepareCall");
+
+    // Looked up lazily: a post-processor's own dependencies would otherwise skip post-processing
+    private final ObjectProvider<SqlDiagnostics> diagnosticsProvider;
+    private volatile SqlDiagnostics diagnostics;
+
+    @Autowired
+    public SqlDiagnosticsDataSourceWrapper(ObjectProvider<SqlDiagnostics> diagnosticsProvider) {
+        this.diagnosticsProvider = diagnosticsProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return wrap(dataSource);
+        }
+        return bean;
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        // Closeable too, so the container still closes the pool on shutdown
+        Class<?>[] interfaces = dataSource instanceof Closeable
+                ? new Class<?>[]{DataSource.class, Closeable.class}
+                : new Class<?>[]{DataSource.class};
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), interfaces, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            if (result instanceof Connection connection && "getConnection".equals(method.getName())) {
+                return proxy(Connection.class, new ConnectionHandler(connection));
+            }
+            return result;
+        });
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlDiagnosticsDataSourceWrapper.invoke(target, method, args);
+            if (result instanceof Statement statement && STATEMENT_FACTORY_METHODS.contains(method.getName())) {
+                boolean prepared = !"createStatement".equals(method.getName());
+                String sql = prepared ? (String) args[0] : null;
+                return proxy(method.getReturnType(), new StatementHandler(statement, sql, prepared));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final boolean prepared;
+        private String sql;
+
+        private StatementHandler(Statement target, String sql, boolean prepared) {
+            this.target = target;
+            this.sql = sql;
+            this.prepared = prepared;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!prepared && args != null && args.length > 0 && args[0] instanceof String text
+                    && (EXECUTE_METHODS.contains(name) || "addBatch".equals(name))) {
+                sql = text;
+            }
+            if (!EXECUTE_METHODS.contains(name)) {
+                return SqlDiagnosticsDataSourceWrapper.invoke(target, method, args);
+            }
+            long started = System.nanoTime();
+            try {
+                return SqlDiagnosticsDataSourceWrapper.invoke(target, method, args);
+            } finally {
+                diagnostics().record(sql, prepared, System.nanoTime() - started);
+            }
+        }
+    }
+
+    private SqlDiagnostics diagnostics() {
+        SqlDiagnostics resolved = diagnostics;
+        if (resolved == null) {
+            resolved = diagnosticsProvider.getObject();
+            diagnostics = resolved;
+        }
+        return resolved;
+    }
+
+    private static Object proxy(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(SqlDiagnosticsDataSourceWrapper.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.SpringBootDemo.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint reporting SQL diagnostics
+ * GET /actuator/sql - thresholds, Hibernate statistics, the statements taking the most time,
+ * recent slow statements and recent N+1 / repeated-query findings
+ * DELETE /actuator/sql - start a fresh measurement
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+@Endpoint(id = "sql")
+@ConditionalOnProperty(name = "app.sql.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlDiagnosticsEndpoint {
+
+    private static final int TOP_STATEMENTS = 20;
+
+    private final SqlDiagnostics diagnostics;
+    private final Statistics statistics;
+
+    @Autowired
+    public SqlDiagnosticsEndpoint(SqlDiagnostics diagnostics, EntityManagerFactory entityManagerFactory) {
+        this.diagnostics = diagnostics;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> sql() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("slowThresholdMs", diagnostics.getSlowThresholdMillis());
+        report.put("sampleRate", diagnostics.getSampleRate());
+        report.put("repeatThreshold", diagnostics.getRepeatThreshold());
+        report.put("hibernate", hibernateStatistics());
+        report.put("topStatements", diagnostics.getTopStatements(TOP_STATEMENTS));
+        report.put("slowStatements", diagnostics.getSlowStatements());
+        report.put("findings", diagnostics.getFindings());
+        return report;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        diagnostics.reset();
+        statistics.clear();
+    }
+
+    private Map<String, Object> hibernateStatistics() {
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("enabled", statistics.isStatisticsEnabled());
+        if (!statistics.isStatisticsEnabled()) {
+            return hibernate;
+        }
+        hibernate.put("sessionsOpened", statistics.getSessionOpenCount());
+        hibernate.put("transactions", statistics.getTransactionCount());
+        hibernate.put("flushes", statistics.getFlushCount());
+        hibernate.put("statementsPrepared", statistics.getPrepareStatementCount());
+        hibernate.put("queriesExecuted", statistics.getQueryExecutionCount());
+        hibernate.put("slowestQueryMs", statistics.getQueryExecutionMaxTime());
+        hibernate.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        hibernate.put("entitiesLoaded", statistics.getEntityLoadCount());
+        // Fetches are loads of associations or proxies one at a time, the usual source of N+1 queries
+        hibernate.put("entitiesFetched", statistics.getEntityFetchCount());
+        hibernate.put("collectionsLoaded", statistics.getCollectionLoadCount());
+        hibernate.put("collectionsFetched", statistics.getCollectionFetchCount());
+        hibernate.put("entitiesInserted", statistics.getEntityInsertCount());
+        hibernate.put("entitiesUpdated", statistics.getEntityUpdateCount());
+        hibernate.put("entitiesDeleted", statistics.getEntityDeleteCount());
+        hibernate.put("optimisticLockFailures", statistics.getOptimisticFailureCount());
+        return hibernate;
+    }
+}
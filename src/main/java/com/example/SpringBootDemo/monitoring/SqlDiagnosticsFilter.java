@@ -0,0 +1,47 @@
+package com.example.SpringBootDemo.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Scopes {@link SqlDiagnostics} to each HTTP request, so repeated statements are reported per request
+ *
+ * Runs before the Spring Security filter chain, so statements issued while authenticating
+ * (user lookups, lockout and login bookkeeping) are attributed to the request too.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@ConditionalOnProperty(name = "app.sql.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+
+    private final SqlDiagnostics sqlDiagnostics;
+
+    @Autowired
+    public SqlDiagnosticsFilter(SqlDiagnostics sqlDiagnostics) {
+        this.sqlDiagnostics = sqlDiagnostics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlDiagnostics.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            sqlDiagnostics.endRequest();
+        }
+    }
+}
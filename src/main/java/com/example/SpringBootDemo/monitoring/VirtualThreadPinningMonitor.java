@@ -0,0 +1,234 @@
+package com.example.SpringBootDemo.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detects virtual threads pinned to their carrier thread
+ *
+ * A virtual thread that blocks inside a synchronized block (or a native frame) cannot unmount and
+ * holds its carrier for the whole wait; with only as many carriers as CPUs, a few such waits stall
+ * every other request. The JVM reports each pin longer than a threshold as a jdk.VirtualThreadPinned
+ * JFR event. This monitor streams those events in-process and aggregates them by the innermost
+ * application frame (or the top frame when no application code is involved).
+ *
+ * Only active when virtual threads are enabled (spring.threads.virtual.enabled=true);
+ * the results are exposed through the "pinning" actuator endpoint.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String APPLICATION_PACKAGE = "com.example.SpringBootDemo.";
+
+    /**
+     * One pin, as kept in the recent-events history
+     */
+    public record PinnedEvent(Instant time, String thread, long durationMicros, String site) {
+    }
+
+    /**
+     * Aggregated pins of one code location
+     */
+    public static final class PinningSite {
+        private final String site;
+        private final List<String> stack;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private PinningSite(String site, List<String> stack) {
+            this.site = site;
+            this.stack = List.copyOf(stack);
+        }
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public String getSite() {
+            return site;
+        }
+
+        /**
+         * Stack of the first pin seen at this site, innermost frame first
+         */
+        public List<String> getStack() {
+            return stack;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalMillis() {
+            return Duration.ofNanos(totalNanos.sum()).toMillis();
+        }
+
+        public long getMaxMillis() {
+            return Duration.ofNanos(maxNanos.get()).toMillis();
+        }
+    }
+
+    private final ConcurrentHashMap<String, PinningSite> sites = new ConcurrentHashMap<>();
+    private final RecentEvents<PinnedEvent> recent;
+    private final Duration threshold;
+    private final int stackDepth;
+
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+
+    private volatile RecordingStream stream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinning.threshold-ms:20}") long thresholdMillis,
+                                       @Value("${app.virtual-threads.pinning.stack-depth:16}") int stackDepth,
+                                       @Value("${app.virtual-threads.pinning.recent-capacity:256}") int recentCapacity) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.stackDepth = stackDepth;
+        this.recent = new RecentEvents<>(recentCapacity);
+
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier for longer than the threshold")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Time virtual threads spent pinned to their carrier")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start streaming pinning events from the running JVM
+     */
+    @PostConstruct
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onEvent);
+        recording.onError(e -> logger.warn("Pinning event stream failed", e));
+        recording.startAsync();
+        stream = recording;
+        logger.info("Watching for virtual threads pinned longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private void onEvent(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        record(event.getStartTime(), thread != null ? thread.getJavaName() : null, event.getDuration(),
+                frames(event.getStackTrace()));
+    }
+
+    /**
+     * Count one pin
+     * @param frames the pinned thread's stack, innermost frame first
+     */
+    void record(Instant time, String thread, Duration duration, List<String> frames) {
+        String site = site(frames);
+        sites.computeIfAbsent(site, s -> new PinningSite(s, frames)).record(duration.toNanos());
+        recent.add(new PinnedEvent(time, thread, duration.toNanos() / 1000, site));
+        pinnedCounter.increment();
+        pinnedTimer.record(duration);
+    }
+
+    /**
+     * The innermost application frame, falling back to the innermost frame
+     */
+    static String site(List<String> frames) {
+        for (String frame : frames) {
+            if (frame.startsWith(APPLICATION_PACKAGE)) {
+                return frame;
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frames.get(0);
+    }
+
+    private List<String> frames(RecordedStackTrace stackTrace) {
+        List<String> frames = new ArrayList<>();
+        if (stackTrace == null) {
+            return frames;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frames.size() == stackDepth) {
+                break;
+            }
+            if (frame.isJavaFrame()) {
+                frames.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber());
+            }
+        }
+        return frames;
+    }
+
+    public Duration getThreshold() {
+        return threshold;
+    }
+
+    public long getTotalPinned() {
+        return sites.values().stream().mapToLong(PinningSite::getCount).sum();
+    }
+
+    /**
+     * Pinning sites, the ones holding carriers longest in total first
+     */
+    public List<PinningSite> getSites() {
+        return sites.values().stream()
+                .sorted(Comparator.comparingLong((PinningSite s) -> s.totalNanos.sum()).reversed())
+                .toList();
+    }
+
+    /**
+     * The most recent pins, oldest first
+     */
+    public List<PinnedEvent> getRecentEvents() {
+        return recent.snapshot();
+    }
+
+    /**
+     * Forget all aggregated sites and recent events (the meters keep counting)
+     */
+    public void reset() {
+        sites.clear();
+        recent.clear();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.SpringBootDemo.repository;
+
+import com.example.SpringBootDemo.entity.EmailDomainCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the per-domain user counters
+ */
+@Repository
+public interface EmailDomainCountRepository extends JpaRepository<EmailDomainCount, String> {
+
+    /**
+     * Atomically add a delta to a domain counter, creating the row if it does not exist yet
+     * Uses a standard SQL MERGE so concurrent writers never read-modify-write the counter
+     * @param domain the normalized email domain
+     * @param delta the amount to add (negative to subtract)
+     * @return the number of rows affected
+     */
+    @Modifying
+    @Query(value = "MERGE INTO email_domain_counts t " +
+                   "USING (VALUES (CAST(:domain AS VARCHAR(255)), CAST(:delta AS BIGINT))) AS s(domain, delta) " +
+                   "ON t.domain = s.domain " +
+                   "WHEN MATCHED THEN UPDATE SET user_count = t.user_count + s.delta " +
+                   "WHEN NOT MATCHED THEN INSERT (domain, user_count) VALUES (s.domain, s.delta)",
+           nativeQuery = true)
+    int adjustCount(@Param("domain") String domain, @Param("delta") long delta);
+
+    /**
+     * Compute the counters of domains that have none from the users table
+     * A node starting at the same time may already have inserted some; those are skipped.
+     * @return the number of counters written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO email_domain_counts (domain, user_count) " +
+                   "SELECT u.email_domain, COUNT(*) FROM users u WHERE u.email_domain IS NOT NULL " +
+                   "AND NOT EXISTS (SELECT 1 FROM email_domain_counts c WHERE c.domain = u.email_domain) " +
+                   "GROUP BY u.email_domain",
+           nativeQuery = true)
+    int insertCountsFromUsers();
+}
@@ -0,0 +1,90 @@
+package com.example.SpringBootDemo.repository;
+
+import com.example.SpringBootDemo.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the transactional outbox
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the oldest unsent, unparked events, in insertion order
+     * The rows stay locked only for the relay's short claim transaction, in which they are marked claimed
+     * @param limit the batch size
+     * @return up to limit unsent events, oldest first
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OutboxEvent> findBySentAtIsNullAndParkedAtIsNullOrderByIdAsc(Limit limit);
+
+    /**
+     * The oldest unsent event, used for the relay lag metric
+     */
+    Optional<OutboxEvent> findFirstBySentAtIsNullAndParkedAtIsNullOrderByIdAsc();
+
+    /**
+     * Count events waiting to be published
+     */
+    long countBySentAtIsNullAndParkedAtIsNull();
+
+    /**
+     * Claim events for one relay until the given time, or release them with null
+     * @param ids the event IDs
+     * @param claimedUntil the end of the claim, or null to release it
+     * @return the number of events updated
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = :claimedUntil WHERE e.id IN :ids")
+    int updateClaim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    /**
+     * Count one more failed send
+     * @param ids the IDs of the events whose send failed
+     * @return the number of events updated
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stop publishing events that failed too often; they stay in the table for inspection
+     * @param ids the event IDs
+     * @param parkedAt the time they were given up on
+     * @return the number of events parked
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.parkedAt = :parkedAt WHERE e.id IN :ids")
+    int park(@Param("ids") Collection<Long> ids, @Param("parkedAt") LocalDateTime parkedAt);
+
+    /**
+     * Mark published events as sent
+     * @param ids the published event IDs
+     * @param sentAt the publish time
+     * @return the number of events marked
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sentAt = :sentAt WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Remove events published before the cutoff
+     * @param cutoff events sent before this time are deleted
+     * @return the number of events deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
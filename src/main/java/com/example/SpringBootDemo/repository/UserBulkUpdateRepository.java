@@ -0,0 +1,30 @@
+package com.example.SpringBootDemo.repository;
+
+import com.example.SpringBootDemo.dto.UserSelection;
+import com.example.SpringBootDemo.entity.UserRole;
+
+/**
+ * Set-based updates of many users at once (a fragment of UserRepository)
+ *
+ * Each method issues a single UPDATE restricted to the selection (one per 1000 IDs for a longer ID list)
+ * and returns the number of rows changed.
+ * Like a @Modifying query, pending changes are flushed first and the persistence context is cleared after,
+ * so no managed entity keeps stale state. Entity callbacks do not run; updatedAt is set by the statement.
+ */
+public interface UserBulkUpdateRepository {
+
+    /**
+     * Enable or disable the selected users
+     */
+    int updateEnabled(UserSelection selection, boolean enabled);
+
+    /**
+     * Lock or unlock the selected users; unlocking also clears their failed-login count
+     */
+    int updateLocked(UserSelection selection, boolean locked);
+
+    /**
+     * Give the selected users a new role
+     */
+    int updateRole(UserSelection selection, UserRole role);
+}
@@ -0,0 +1,106 @@
+package com.example.SpringBootDemo.repository;
+
+import com.example.SpringBootDemo.dto.UserSelection;
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.entity.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Criteria implementation of {@link UserBulkUpdateRepository}
+ *
+ * The WHERE clause contains only the criteria that are set, so every variant can use the matching
+ * index (primary key, email_domain, role/enabled or created_at) instead of "(:param IS NULL OR ...)"
+ * conditions that force a full scan. A long ID list is updated in chunks, so no statement carries
+ * more bind parameters than databases accept in one IN list.
+ */
+class UserBulkUpdateRepositoryImpl implements UserBulkUpdateRepository {
+
+    static final int MAX_IDS_PER_STATEMENT = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateEnabled(UserSelection selection, boolean enabled) {
+        return update(selection, (user, update) -> update.set(user.<Boolean>get("enabled"), enabled));
+    }
+
+    @Override
+    public int updateLocked(UserSelection selection, boolean locked) {
+        return update(selection, (user, update) -> {
+            update.set(user.<Boolean>get("accountNonLocked"), !locked);
+            if (!locked) {
+                update.set(user.<Integer>get("failedLoginAttempts"), 0);
+            }
+        });
+    }
+
+    @Override
+    public int updateRole(UserSelection selection, UserRole role) {
+        return update(selection, (user, update) -> update.set(user.<UserRole>get("role"), role));
+    }
+
+    private int update(UserSelection selection, BiConsumer<Root<User>, CriteriaUpdate<User>> assignments) {
+        if (selection == null || selection.isEmpty()) {
+            throw new IllegalArgumentException("Select users by ids or at least one filter");
+        }
+        List<Long> ids = selection.getIds();
+        if (ids == null || ids.size() <= MAX_IDS_PER_STATEMENT) {
+            return execute(selection, assignments);
+        }
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            updated += execute(selection.withIds(ids.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, ids.size()))),
+                    assignments);
+        }
+        return updated;
+    }
+
+    private int execute(UserSelection selection, BiConsumer<Root<User>, CriteriaUpdate<User>> assignments) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+        Root<User> user = update.from(User.class);
+        assignments.accept(user, update);
+        update.set(user.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        // Bump the optimistic-lock version so edits based on copies read before this update are rejected
+        Path<Long> version = user.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.where(predicates(cb, user, selection));
+
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<User> user, UserSelection selection) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (selection.getIds() != null && !selection.getIds().isEmpty()) {
+            predicates.add(user.get("id").in(selection.getIds()));
+        }
+        if (selection.getRole() != null) {
+            predicates.add(cb.equal(user.get("role"), selection.getRole()));
+        }
+        if (selection.getEmailDomain() != null) {
+            predicates.add(cb.equal(user.get("emailDomain"), selection.getEmailDomain()));
+        }
+        if (selection.getCreatedAfter() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.get("createdAt"), selection.getCreatedAfter()));
+        }
+        if (selection.getCreatedBefore() != null) {
+            predicates.add(cb.lessThan(user.get("createdAt"), selection.getCreatedBefore()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.SpringBootDemo.security;
+
+import com.example.SpringBootDemo.entity.UserRole;
+import com.example.SpringBootDemo.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Method-security helper answering ownership and role questions from the authenticated principal
+ *
+ * Used in expressions as {@code @authz}, e.g.
+ * {@code @PreAuthorize("hasRole('ADMIN') or @authz.isOwner(authentication, #id)")}.
+ * A {@link CustomUserDetails} principal already carries the user ID and role, so no repository
+ * access is needed. Only when the principal cannot answer (a different principal type, or role
+ * data older than app.security.principal-max-age-seconds) does it fall back to UserService.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component("authz")
+public class AuthorizationEvaluator {
+
+    private final UserService userService;
+    private final long principalMaxAgeMillis;
+
+    @Autowired
+    public AuthorizationEvaluator(UserService userService,
+                                  @Value("${app.security.principal-max-age-seconds:300}") long principalMaxAgeSeconds) {
+        this.userService = userService;
+        this.principalMaxAgeMillis = principalMaxAgeSeconds * 1000;
+    }
+
+    /**
+     * Check if the authenticated user is the user with the given ID
+     * User IDs never change, so the principal's ID is authoritative however old it is.
+     */
+    public boolean isOwner(Authentication authentication, Long userId) {
+        if (authentication == null || userId == null) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal && principal.getUserId() != null) {
+            return userId.equals(principal.getUserId());
+        }
+        return userService.isOwner(userId, authentication.getName());
+    }
+
+    /**
+     * Check if the authenticated user can access reports (managers and admins)
+     */
+    public boolean canAccessReports(Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal && isFresh(principal)) {
+            UserRole role = principal.getUserRole();
+            return role == UserRole.MANAGER || role == UserRole.ADMIN;
+        }
+        return userService.canAccessReports(authentication.getName());
+    }
+
+    private boolean isFresh(CustomUserDetails principal) {
+        return System.currentTimeMillis() - principal.getLoadedAt() <= principalMaxAgeMillis;
+    }
+}
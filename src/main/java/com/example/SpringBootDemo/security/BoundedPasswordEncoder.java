@@ -0,0 +1,247 @@
+package com.example.SpringBootDemo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt password encoder that hashes on a dedicated, bounded thread pool
+ *
+ * Request threads hand the work to a fixed number of hashing threads and wait for the result,
+ * so bcrypt can use at most that many cores no matter how many requests arrive. When all threads
+ * are busy and the queue is full, the call fails immediately with {@link HashingRejectedException}
+ * instead of piling up more waiting requests.
+ *
+ * Stored hashes with a lower cost than the current strength report {@link #upgradeEncoding},
+ * so Spring Security re-hashes them on the next successful login. Hashes with a higher cost are
+ * kept: re-hashing them would silently weaken those passwords.
+ *
+ * Once bound to a registry, encode and matches calls are timed as password.hashing.duration,
+ * including any wait for a hashing thread.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    /**
+     * The fixed cost used before calibration; calibration never picks less, so existing hashes keep their strength
+     */
+    public static final int MIN_CALIBRATED_STRENGTH = 12;
+    public static final int MAX_CALIBRATED_STRENGTH = 16;
+
+    // Cost of the timed probe hashes, cheap enough to keep startup fast
+    private static final int PROBE_STRENGTH = 10;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private Counter rejections;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+
+    /**
+     * Thrown when the hashing pool is saturated
+     * Answered with 503 by MVC; during login it fails authentication like any other service error.
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class HashingRejectedException extends AuthenticationServiceException {
+        public HashingRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @param strength the bcrypt cost (log2 rounds)
+     * @param threads the number of hashing threads
+     * @param queueCapacity the number of requests allowed to wait for a hashing thread
+     */
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), hashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Password hashing: bcrypt cost {}, {} threads, queue capacity {}", strength, threads, queueCapacity);
+    }
+
+    /**
+     * Pick the highest bcrypt cost whose hash time stays within the target, measured on this machine
+     * Each cost step doubles the work, so one timed hash at a low cost is enough to extrapolate.
+     * The result is never below {@link #MIN_CALIBRATED_STRENGTH}, even on a machine too slow to meet the target.
+     * @param targetMillis the acceptable time for one hash
+     * @return a cost between {@link #MIN_CALIBRATED_STRENGTH} and {@link #MAX_CALIBRATED_STRENGTH}
+     */
+    public static int calibrateStrength(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        probe.encode("calibration-warmup");
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long started = System.nanoTime();
+            probe.encode("calibration-probe");
+            best = Math.min(best, System.nanoTime() - started);
+        }
+
+        double millis = Math.max(best / 1_000_000.0, 0.001);
+        int strength = PROBE_STRENGTH;
+        while (strength < MAX_CALIBRATED_STRENGTH && (strength < MIN_CALIBRATED_STRENGTH || millis * 2 <= targetMillis)) {
+            millis *= 2;
+            strength++;
+        }
+        logger.info("Calibrated bcrypt cost {} (~{} ms per hash, target {} ms)", strength, Math.round(millis), targetMillis);
+        return strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Hash many passwords in parallel, for bulk operations
+     * At most half the pool threads (at least one) hash for the caller at a time, so a bulk job waits
+     * for capacity instead of filling the pool and queue that logins share; nulls stay null.
+     * @param rawPasswords the passwords to hash
+     * @return the hashes, in the same order
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = Math.max(1, executor.getMaximumPoolSize() / 2);
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        Deque<Future<String>> inFlight = new ArrayDeque<>(window);
+        for (CharSequence rawPassword : rawPasswords) {
+            if (inFlight.size() == window) {
+                hashes.add(await(inFlight.removeFirst()));
+            }
+            inFlight.addLast(rawPassword == null
+                    ? CompletableFuture.completedFuture(null)
+                    : submit(() -> delegate.encode(rawPassword)));
+        }
+        while (!inFlight.isEmpty()) {
+            hashes.add(await(inFlight.removeFirst()));
+        }
+        return hashes;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Re-hash only when the stored cost is lower than the current one, never to a lower cost
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "password.hashing", List.of()).bindTo(registry);
+        rejections = Counter.builder("password.hashing.rejected")
+                .description("Hash requests rejected because the hashing pool was full")
+                .register(registry);
+        encodeTimer = hashingTimer("encode", registry);
+        matchesTimer = hashingTimer("matches", registry);
+    }
+
+    private static Timer hashingTimer(String operation, MeterRegistry registry) {
+        return Timer.builder("password.hashing.duration")
+                .description("Time to hash or verify a password, including the wait for a hashing thread")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    /**
+     * Stop the hashing threads (called by the container on shutdown)
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Timer timer, Callable<T> task) {
+        if (timer == null) {
+            return await(submit(task));
+        }
+        long started = System.nanoTime();
+        try {
+            return await(submit(task));
+        } finally {
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            if (rejections != null) {
+                rejections.increment();
+            }
+            throw new HashingRejectedException("Password hashing capacity exceeded, try again later");
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory hashingThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
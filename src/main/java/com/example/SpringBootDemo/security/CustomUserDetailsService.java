@@ -3,38 +3,134 @@ package com.example.SpringBootDemo.security;
 import com.example.SpringBootDemo.entity.User;
 import com.example.SpringBootDemo.entity.UserRole;
 import com.example.SpringBootDemo.repository.UserRepository;
+import com.example.SpringBootDemo.service.UserCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureCredentialsExpiredEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureDisabledEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureExpiredEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureLockedEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Custom UserDetailsService implementation for Spring Security
  * 
  * This service loads user details from the database for authentication
  * 
+ * Login metrics: users.login counts attempts by outcome (success, bad_credentials, locked, disabled,
+ * expired, error) and users.login.load times the user lookup. Lockouts are counted by
+ * LoginAttemptTracker, bcrypt time by BoundedPasswordEncoder (password.hashing.duration).
+ * 
  * @author User Management Team
  * @version 1.0
  */
 @Service
 @Transactional(readOnly = true)
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+
+    private Timer loadFoundTimer;
+    private Timer loadNotFoundTimer;
+    private Counter successCounter;
+    private Counter badCredentialsCounter;
+    private Counter lockedCounter;
+    private Counter disabledCounter;
+    private Counter expiredCounter;
+    private Counter errorCounter;
+
+    @Autowired
+    void registerMeters(MeterRegistry meterRegistry) {
+        loadFoundTimer = loadTimer("found", meterRegistry);
+        loadNotFoundTimer = loadTimer("not_found", meterRegistry);
+        successCounter = loginCounter("success", meterRegistry);
+        badCredentialsCounter = loginCounter("bad_credentials", meterRegistry);
+        lockedCounter = loginCounter("locked", meterRegistry);
+        disabledCounter = loginCounter("disabled", meterRegistry);
+        expiredCounter = loginCounter("expired", meterRegistry);
+        errorCounter = loginCounter("error", meterRegistry);
+    }
+
+    private static Timer loadTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("users.login.load")
+                .description("Time to load a user for authentication")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter loginCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("users.login")
+                .description("Login attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Counting needs no transaction (the class default would open one per login)
+    @EventListener
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        successCounter.increment();
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void onAuthenticationFailure(AbstractAuthenticationFailureEvent event) {
+        if (event instanceof AuthenticationFailureBadCredentialsEvent) {
+            badCredentialsCounter.increment();
+        } else if (event instanceof AuthenticationFailureLockedEvent) {
+            lockedCounter.increment();
+        } else if (event instanceof AuthenticationFailureDisabledEvent) {
+            disabledCounter.increment();
+        } else if (event instanceof AuthenticationFailureExpiredEvent
+                || event instanceof AuthenticationFailureCredentialsExpiredEvent) {
+            expiredCounter.increment();
+        } else {
+            errorCounter.increment();
+        }
+    }
+
     /**
      * Load user by username (email in our case)
      * This method is called by Spring Security during authentication
+     * An account whose failed-login window is locked is returned as locked, so the login is refused
+     * even before the lock has reached the database. Runs without the class's read-only transaction
+     * because that check may write the lock.
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        long started = System.nanoTime();
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            loadNotFoundTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        loadFoundTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 
         // Validate that user has required security fields
         if (user.getPassword() == null || user.getPassword().isEmpty()) {
@@ -45,8 +141,26 @@ public class CustomUserDetailsService implements UserDetailsService {
             user.setRole(UserRole.USER); // Set default role if missing
         }
 
-        // Update last login time (in a separate transaction)
-        updateLastLogin(user.getId());
+        if (loginAttemptTracker.isLocked(user)) {
+            user.setAccountNonLocked(false);
+        }
+
+        // Last login is recorded by LastLoginRecorder once the password has been verified
+        return new CustomUserDetails(user);
+    }
+
+    /**
+     * Store a re-hashed password
+     * Called by Spring Security after a successful login when the stored hash uses a different bcrypt cost
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userCache.evictOnCommit(user.getId());
 
         return new CustomUserDetails(user);
     }
@@ -63,31 +177,27 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     /**
      * Update user's last login time
+     * Queued and written in the next batch by LastLoginRecorder, which also resets failed attempts
      */
-    @Transactional
     public void updateLastLogin(Long userId) {
-        userRepository.findById(userId).ifPresent(user -> {
-            user.setLastLogin(LocalDateTime.now());
-            user.setFailedLoginAttempts(0); // Reset failed attempts on successful login
-            userRepository.save(user);
-        });
+        lastLoginRecorder.record(userId, LocalDateTime.now());
     }
 
     /**
      * Increment failed login attempts
+     * Counted in memory by LoginAttemptTracker; the account is locked after the configured number of attempts
+     * @return the number of failures in the current window
      */
     @Transactional
-    public void incrementFailedLoginAttempts(String email) {
-        userRepository.findByEmail(email).ifPresent(user -> {
-            user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
-            
-            // Lock account after 5 failed attempts
-            if (user.getFailedLoginAttempts() >= 5) {
-                user.setAccountNonLocked(false);
-            }
-            
-            userRepository.save(user);
-        });
+    public int incrementFailedLoginAttempts(String email) {
+        return loginAttemptTracker.recordFailure(email);
+    }
+
+    /**
+     * Get the number of recent failed login attempts
+     */
+    public int getFailedLoginAttempts(String email) {
+        return loginAttemptTracker.getFailedAttempts(email);
     }
 
     /**
@@ -95,10 +205,7 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Transactional
     public void resetFailedLoginAttempts(String email) {
-        userRepository.findByEmail(email).ifPresent(user -> {
-            user.setFailedLoginAttempts(0);
-            userRepository.save(user);
-        });
+        loginAttemptTracker.reset(email);
     }
 
     /**
@@ -106,10 +213,6 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Transactional
     public void unlockAccount(String email) {
-        userRepository.findByEmail(email).ifPresent(user -> {
-            user.setAccountNonLocked(true);
-            user.setFailedLoginAttempts(0);
-            userRepository.save(user);
-        });
+        loginAttemptTracker.unlock(email);
     }
 }
@@ -0,0 +1,227 @@
+package com.example.SpringBootDemo.security;
+
+import com.example.SpringBootDemo.service.UserCache;
+import com.example.SpringBootDemo.service.UserChangeStamp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind recorder for successful logins
+ *
+ * Logins only put the user's login time into an in-memory map; repeated logins of the same user
+ * coalesce into one entry. The map is written out periodically as a single JDBC batch that sets
+ * last_login and clears failed_login_attempts. When the map reaches its bound, the login that
+ * filled it flushes immediately instead of waiting for the schedule.
+ *
+ * The bound is strict: a login of a user not yet queued that finds the map full flushes
+ * synchronously (waiting for a flush already in progress) and queues its entry afterwards. Only if
+ * the map is still full then, e.g. because the database is failing and the batch was re-queued,
+ * is the login time dropped and counted as users.last_login.dropped. Re-queued entries of a
+ * failed batch are subject to the same bound.
+ * Pending entries are flushed on shutdown.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+public class LastLoginRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET last_login = ?, failed_login_attempts = 0 WHERE id = ?";
+
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    // Entries in pending, reserved before a new key is inserted so the bound holds under concurrency
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserCache userCache;
+    private final UserChangeStamp userChangeStamp;
+    private final int maxPending;
+
+    private final Timer flushTimer;
+    private final Counter flushedCounter;
+    private final Counter failedFlushCounter;
+    private final Counter droppedCounter;
+
+    @Autowired
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate,
+                             UserCache userCache,
+                             UserChangeStamp userChangeStamp,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.last-login.max-pending:10000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userCache = userCache;
+        this.userChangeStamp = userChangeStamp;
+        this.maxPending = maxPending;
+
+        this.flushTimer = Timer.builder("users.last_login.flush")
+                .description("Time to write a batch of pending last-login updates")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("users.last_login.flushed")
+                .description("Last-login updates written to the database")
+                .register(meterRegistry);
+        this.failedFlushCounter = Counter.builder("users.last_login.flush.failures")
+                .description("Last-login batches that failed and were re-queued")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("users.last_login.dropped")
+                .description("Last-login updates dropped because the pending map stayed full")
+                .register(meterRegistry);
+        Gauge.builder("users.last_login.pending", pendingCount, AtomicInteger::get)
+                .description("Last-login updates waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record every successful authentication
+     */
+    @EventListener
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        if (event.getAuthentication().getPrincipal() instanceof CustomUserDetails userDetails) {
+            record(userDetails.getUserId(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Queue a login time for the given user, keeping the latest time if one is already queued
+     * When the map is full, flush synchronously first; drop the login time if it is still full.
+     */
+    public void record(Long userId, LocalDateTime loginTime) {
+        if (userId == null) {
+            return;
+        }
+        if (!enqueue(userId, loginTime)) {
+            flushNow();
+            if (!enqueue(userId, loginTime)) {
+                droppedCounter.increment();
+                logger.debug("Last-login queue full, dropped login time of user {}", userId);
+                return;
+            }
+        }
+        if (pendingCount.get() >= maxPending) {
+            flush();
+        }
+    }
+
+    /**
+     * Write all pending login times in one batch
+     * Only one flush runs at a time; a caller that finds a flush in progress returns immediately.
+     */
+    @Scheduled(fixedDelayString = "${app.last-login.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        List<Long> userIds = new ArrayList<>(pending.size());
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            LocalDateTime loginTime = pending.remove(userId);
+            if (loginTime != null) {
+                pendingCount.decrementAndGet();
+                userIds.add(userId);
+                batch.add(new Object[]{Timestamp.valueOf(loginTime), userId});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+            flushedCounter.increment(batch.size());
+            userIds.forEach(userCache::evict);
+            userChangeStamp.changed();
+            logger.debug("Flushed {} last-login updates", batch.size());
+        } catch (DataAccessException e) {
+            failedFlushCounter.increment();
+            logger.warn("Failed to flush {} last-login updates, will retry", batch.size(), e);
+            int dropped = 0;
+            for (Object[] row : batch) {
+                if (!enqueue((Long) row[1], ((Timestamp) row[0]).toLocalDateTime())) {
+                    dropped++;
+                }
+            }
+            droppedCounter.increment(dropped);
+        }
+    }
+
+    /**
+     * Queue a login time, coalescing with a queued time of the same user
+     * @return false if the user had no entry and the map is full
+     */
+    private boolean enqueue(Long userId, LocalDateTime loginTime) {
+        LocalDateTime queued = pending.compute(userId, (id, previous) -> {
+            if (previous != null) {
+                return loginTime.isAfter(previous) ? loginTime : previous;
+            }
+            return reserveSlot() ? loginTime : null;
+        });
+        return queued != null;
+    }
+
+    private boolean reserveSlot() {
+        int count;
+        do {
+            count = pendingCount.get();
+            if (count >= maxPending) {
+                return false;
+            }
+        } while (!pendingCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * Number of login times waiting to be written
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Write out everything still pending, waiting for an in-progress flush first
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushNow();
+    }
+
+    private void flushNow() {
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.SpringBootDemo.security;
+
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.repository.UserRepository;
+import com.example.SpringBootDemo.service.UserCache;
+import com.example.SpringBootDemo.service.UserChangeStamp;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory failed-login counters with lockout on a threshold
+ *
+ * Each email has a counter updated by compare-and-set, so concurrent bad passwords never lose
+ * an increment and never lock a database row. Failures count within a sliding decay window:
+ * once the window has passed without a lockout, the next failure starts a new window.
+ * The database is written only on transitions: when an account reaches the threshold it is
+ * locked (with the attempt count) in a single UPDATE by user id, and reset/unlock clear it again.
+ *
+ * Counters are keyed by the lower-cased email, so mixing the case of an email cannot spread
+ * failures over several counters. The lock is written for the account the email resolves to;
+ * when the threshold is reached with a spelling that matches no account, the window stays locked
+ * in memory and the lock is written once the account itself is loaded for a login
+ * ({@link #isLocked(User)}), which is refused while the window is locked.
+ *
+ * Counters are bounded in number and expire with the window, so a stuffing run over many
+ * unknown emails cannot grow the map without limit. Counters are per node; the lock itself
+ * is stored in the database and therefore applies cluster-wide, and so does lifting it. Lockouts are counted as
+ * users.login.lockouts.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptTracker.class);
+
+    /**
+     * Immutable counter state, replaced atomically
+     */
+    private record Window(int failures, long startedAt, boolean locked, boolean persisted) {
+    }
+
+    private final Cache<String, AtomicReference<Window>> counters;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final UserChangeStamp userChangeStamp;
+    private final Counter lockoutCounter;
+    private final int maxAttempts;
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LoginAttemptTracker(UserRepository userRepository,
+                               UserCache userCache,
+                               UserChangeStamp userChangeStamp,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.security.login.max-attempts:5}") int maxAttempts,
+                               @Value("${app.security.login.attempt-window-seconds:900}") long windowSeconds,
+                               @Value("${app.security.login.max-tracked:100000}") long maxTracked) {
+        this(userRepository, userCache, userChangeStamp, meterRegistry, maxAttempts, windowSeconds, maxTracked,
+                System::currentTimeMillis);
+    }
+
+    LoginAttemptTracker(UserRepository userRepository, UserCache userCache, UserChangeStamp userChangeStamp,
+                        MeterRegistry meterRegistry, int maxAttempts, long windowSeconds, long maxTracked,
+                        LongSupplier clock) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.userChangeStamp = userChangeStamp;
+        this.lockoutCounter = Counter.builder("users.login.lockouts")
+                .description("Accounts locked after too many failed logins")
+                .register(meterRegistry);
+        this.maxAttempts = maxAttempts;
+        this.windowMillis = Duration.ofSeconds(windowSeconds).toMillis();
+        this.clock = clock;
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+
+    @EventListener
+    public void onBadCredentials(AuthenticationFailureBadCredentialsEvent event) {
+        recordFailure(event.getAuthentication().getName());
+    }
+
+    @EventListener
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        // The database count is cleared by LastLoginRecorder's batch
+        forget(event.getAuthentication().getName());
+    }
+
+    /**
+     * Count a failed login and lock the account when it reaches the threshold
+     * @param email the account email
+     * @return the number of failures in the current window
+     */
+    public int recordFailure(String email) {
+        if (email == null) {
+            return 0;
+        }
+        AtomicReference<Window> counter = counters.get(key(email), k -> new AtomicReference<>(new Window(0, 0, false, false)));
+        long now = clock.getAsLong();
+
+        Window previous;
+        Window next;
+        do {
+            previous = counter.get();
+            if (!previous.locked() && now - previous.startedAt() >= windowMillis) {
+                next = new Window(1, now, maxAttempts <= 1, false);
+            } else {
+                int failures = previous.failures() + 1;
+                next = new Window(failures, previous.startedAt(), previous.locked() || failures >= maxAttempts,
+                        previous.persisted());
+            }
+        } while (!counter.compareAndSet(previous, next));
+
+        if (next.locked() && !previous.locked()) {
+            // Exactly one caller observes the transition
+            lockoutCounter.increment();
+            logger.warn("Locked account {} after {} failed login attempts", key(email), next.failures());
+            userRepository.findByEmail(email).ifPresent(user -> persistLock(counter, user.getId()));
+        }
+        return next.failures();
+    }
+
+    /**
+     * Whether logins to this account are refused because its window is locked
+     * Writes the lock to the database if that has not happened yet (the threshold was reached with
+     * a differently-cased email). A lock that was written but is no longer in the database has been
+     * lifted since, by an unlock on any node or a bulk unlock, so the counter starts over.
+     * @param user the account being loaded for authentication
+     * @return true if the account is locked in memory
+     */
+    public boolean isLocked(User user) {
+        String key = key(user.getEmail());
+        AtomicReference<Window> counter = counters.getIfPresent(key);
+        if (counter == null || !counter.get().locked()) {
+            return false;
+        }
+        if (counter.get().persisted() && user.isAccountNonLocked()) {
+            counters.asMap().remove(key, counter);
+            return false;
+        }
+        persistLock(counter, user.getId());
+        return true;
+    }
+
+    /**
+     * Lock the account in the database, once per locked window
+     */
+    private void persistLock(AtomicReference<Window> counter, Long userId) {
+        Window window;
+        do {
+            window = counter.get();
+            if (!window.locked() || window.persisted()) {
+                return;
+            }
+        } while (!counter.compareAndSet(window,
+                new Window(window.failures(), window.startedAt(), true, true)));
+
+        int updated = userRepository.updateLoginStateById(userId, false, window.failures());
+        if (updated != 1) {
+            logger.warn("Lockout of user {} updated {} rows instead of 1", userId, updated);
+        }
+        userCache.evict(userId);
+        userChangeStamp.changedOnCompletion();
+    }
+
+    /**
+     * Number of failed logins in the current window (0 if the window has passed)
+     */
+    public int getFailedAttempts(String email) {
+        AtomicReference<Window> counter = counters.getIfPresent(key(email));
+        if (counter == null) {
+            return 0;
+        }
+        Window window = counter.get();
+        return window.locked() || clock.getAsLong() - window.startedAt() < windowMillis ? window.failures() : 0;
+    }
+
+    /**
+     * Clear the failed-attempt count, in memory and in the database, keeping the lock flag
+     */
+    public void reset(String email) {
+        forget(email);
+        userRepository.updateFailedLoginAttempts(email, 0);
+        userCache.evictByEmail(email);
+        userChangeStamp.changedOnCompletion();
+    }
+
+    /**
+     * Unlock the account and clear its failed-attempt count
+     */
+    public void unlock(String email) {
+        forget(email);
+        userRepository.updateLoginState(email, true, 0);
+        userCache.evictByEmail(email);
+        userChangeStamp.changedOnCompletion();
+    }
+
+    /**
+     * Drop the in-memory counter only (the caller takes care of the database)
+     */
+    public void forget(String email) {
+        if (email != null) {
+            counters.invalidate(key(email));
+        }
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.SpringBootDemo.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Authenticates the Prometheus scrape account (HTTP Basic on /actuator/prometheus)
+ *
+ * The credentials are compared as SHA-256 digests in constant time rather than with bcrypt: scrapes
+ * arrive every few seconds and must not wait behind logins for the bounded hashing pool, which is
+ * exactly when the latency metrics are needed. The password is a configured secret, not one a user chose.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+public class MetricsScrapeAuthenticationProvider implements AuthenticationProvider {
+
+    private final String username;
+    private final byte[] usernameDigest;
+    private final byte[] passwordDigest;
+
+    /**
+     * @param username the scrape account name
+     * @param password the scrape account password; blank refuses every scrape
+     */
+    public MetricsScrapeAuthenticationProvider(String username, String password) {
+        this.username = username;
+        this.usernameDigest = digest(username);
+        this.passwordDigest = password == null || password.isBlank() ? null : digest(password);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (passwordDigest == null) {
+            throw new BadCredentialsException("No metrics scrape password is configured");
+        }
+        Object credentials = authentication.getCredentials();
+        // Compare both digests every time, so the response time does not tell which one was wrong
+        boolean nameMatches = MessageDigest.isEqual(usernameDigest, digest(authentication.getName()));
+        boolean passwordMatches = MessageDigest.isEqual(passwordDigest,
+                digest(credentials != null ? credentials.toString() : ""));
+        if (!nameMatches || !passwordMatches) {
+            throw new BadCredentialsException("Bad metrics scrape credentials");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                AuthorityUtils.createAuthorityList("ROLE_METRICS"));
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    private static byte[] digest(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
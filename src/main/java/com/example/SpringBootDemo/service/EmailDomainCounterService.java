@@ -0,0 +1,102 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.EmailDomainCount;
+import com.example.SpringBootDemo.repository.EmailDomainCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Service maintaining the per-domain user counters
+ *
+ * Counter changes join the caller's transaction, so they commit or roll back together with the user write.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class EmailDomainCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDomainCounterService.class);
+
+    private final EmailDomainCountRepository emailDomainCountRepository;
+
+    @Autowired
+    public EmailDomainCounterService(EmailDomainCountRepository emailDomainCountRepository) {
+        this.emailDomainCountRepository = emailDomainCountRepository;
+    }
+
+    /**
+     * Count a newly created user
+     */
+    public void userAdded(String domain) {
+        adjust(domain, 1);
+    }
+
+    /**
+     * Count users created in bulk, one counter update per domain
+     * @param countsByDomain the number of new users per (normalized) domain
+     */
+    public void usersAdded(Map<String, Long> countsByDomain) {
+        countsByDomain.forEach(this::adjust);
+    }
+
+    /**
+     * Uncount a deleted user
+     */
+    public void userRemoved(String domain) {
+        adjust(domain, -1);
+    }
+
+    /**
+     * Move a user between domains after an email change
+     */
+    public void emailChanged(String oldDomain, String newDomain) {
+        if (!Objects.equals(oldDomain, newDomain)) {
+            adjust(oldDomain, -1);
+            adjust(newDomain, 1);
+        }
+    }
+
+    /**
+     * Get the number of users with the given (normalized) domain
+     */
+    @Transactional(readOnly = true)
+    public long getCount(String domain) {
+        return emailDomainCountRepository.findById(domain)
+                .map(EmailDomainCount::getUserCount)
+                .orElse(0L);
+    }
+
+    /**
+     * Compute the counters from the users table when there are none yet (a new database)
+     * Runs at startup so users written outside UserService (e.g. seed data) are counted too. Existing
+     * counters are left alone: running nodes keep them current, and deleting and re-inserting them
+     * would race with those nodes' writes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (emailDomainCountRepository.count() > 0) {
+            logger.info("Email domain counters already present, not recomputing");
+            return;
+        }
+        int domains = emailDomainCountRepository.insertCountsFromUsers();
+        logger.info("Computed email domain counters for {} domains", domains);
+    }
+
+    private void adjust(String domain, long delta) {
+        if (domain != null) {
+            emailDomainCountRepository.adjustCount(domain, delta);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.SpringBootDemo.service;
 
 import com.example.SpringBootDemo.config.KafkaConfig;
+import com.example.SpringBootDemo.event.NotificationEvent;
+import com.example.SpringBootDemo.event.UserEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,13 +12,17 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Kafka Producer Service
  * 
  * This service handles sending messages to Kafka topics.
+ * User events and notifications are sent as typed records, serialized by the binary
+ * serializers configured in {@link KafkaConfig}.
+ * Sends are timed from send() to the broker acknowledgement as kafka.producer.send, tagged with the
+ * topic (ad-hoc messages as "custom") and the outcome (success or failure).
  * 
  * @author User Management Team
  * @version 1.0
@@ -24,30 +32,65 @@ public class KafkaProducerService {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    /**
+     * Send timers of one topic tag
+     */
+    private record SendTimers(Timer success, Timer failure) {
+
+        static SendTimers register(String topic, MeterRegistry meterRegistry) {
+            return new SendTimers(timer(topic, "success", meterRegistry), timer(topic, "failure", meterRegistry));
+        }
+
+        private static Timer timer(String topic, String outcome, MeterRegistry meterRegistry) {
+            return Timer.builder("kafka.producer.send")
+                    .description("Time from send to broker acknowledgement")
+                    .tag("topic", topic)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        void record(long started, Throwable exception) {
+            (exception == null ? success : failure).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SendTimers userEventTimers;
+    private final SendTimers notificationTimers;
+    private final SendTimers customTimers;
 
     @Autowired
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.userEventTimers = SendTimers.register(KafkaConfig.USER_EVENTS_TOPIC, meterRegistry);
+        this.notificationTimers = SendTimers.register(KafkaConfig.NOTIFICATIONS_TOPIC, meterRegistry);
+        // Ad-hoc topics are named by the caller, so they share one tag
+        this.customTimers = SendTimers.register("custom", meterRegistry);
     }
 
     /**
      * Send user event message to Kafka
      */
     public void sendUserEvent(String eventType, String userId, String userDetails) {
-        String message = String.format("{\"eventType\":\"%s\",\"userId\":\"%s\",\"userDetails\":\"%s\",\"timestamp\":\"%s\"}", 
-                eventType, userId, userDetails, LocalDateTime.now());
-        
-        logger.info("📤 Sending user event to Kafka: {}", message);
+        sendUserEvent(UserEvent.of(eventType, userId, userDetails));
+    }
+
+    /**
+     * Send a user event to Kafka, keyed by user ID
+     */
+    public void sendUserEvent(UserEvent event) {
+        logger.debug("📤 Sending user event to Kafka: {}", event);
         
-        CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(KafkaConfig.USER_EVENTS_TOPIC, userId, message);
+        long started = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(KafkaConfig.USER_EVENTS_TOPIC, event.key(), event);
         
         future.whenComplete((result, exception) -> {
+            userEventTimers.record(started, exception);
             if (exception == null) {
-                logger.info("✅ User event sent successfully: {} with offset: {}", 
-                        message, result.getRecordMetadata().offset());
+                logger.debug("✅ User event {} sent with offset: {}", 
+                        event.eventId(), result.getRecordMetadata().offset());
             } else {
-                logger.error("❌ Failed to send user event: {}", message, exception);
+                logger.error("❌ Failed to send user event: {}", event, exception);
             }
         });
     }
@@ -56,32 +99,41 @@ public class KafkaProducerService {
      * Send notification message to Kafka
      */
     public void sendNotification(String recipient, String subject, String content) {
-        String message = String.format("{\"recipient\":\"%s\",\"subject\":\"%s\",\"content\":\"%s\",\"timestamp\":\"%s\"}", 
-                recipient, subject, content, LocalDateTime.now());
-        
-        logger.info("📤 Sending notification to Kafka: {}", message);
+        sendNotification(NotificationEvent.of(recipient, subject, content));
+    }
+
+    /**
+     * Send a notification to Kafka, keyed by recipient
+     */
+    public void sendNotification(NotificationEvent notification) {
+        logger.debug("📤 Sending notification to Kafka: {}", notification);
         
-        CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(KafkaConfig.NOTIFICATIONS_TOPIC, recipient, message);
+        long started = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(KafkaConfig.NOTIFICATIONS_TOPIC, notification.recipient(), notification);
         
         future.whenComplete((result, exception) -> {
+            notificationTimers.record(started, exception);
             if (exception == null) {
-                logger.info("✅ Notification sent successfully: {} with offset: {}", 
-                        message, result.getRecordMetadata().offset());
+                logger.debug("✅ Notification {} sent with offset: {}", 
+                        notification.eventId(), result.getRecordMetadata().offset());
             } else {
-                logger.error("❌ Failed to send notification: {}", message, exception);
+                logger.error("❌ Failed to send notification: {}", notification, exception);
             }
         });
     }
 
     /**
      * Send custom message to any topic
+     * The value is sent as a plain string; consumers of the typed topics will reject it
      */
     public void sendMessage(String topic, String key, String message) {
         logger.info("📤 Sending custom message to topic {}: {}", topic, message);
         
-        CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(topic, key, message);
+        long started = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, key, message);
         
         future.whenComplete((result, exception) -> {
+            customTimers.record(started, exception);
             if (exception == null) {
                 logger.info("✅ Custom message sent successfully to topic {}: {} with offset: {}", 
                         topic, message, result.getRecordMetadata().offset());
@@ -0,0 +1,123 @@
+package com.example.SpringBootDemo.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Processes a batch in parallel on virtual threads while keeping per-key order
+ *
+ * Items are grouped by key; each group runs sequentially (in batch order) on its own virtual thread
+ * and different keys run concurrently. {@link #processAll} returns only when the whole batch is done,
+ * so a Kafka batch listener can let the container commit the batch's offsets afterwards.
+ *
+ * A failing item stops its own key's group. Once the batch is done, the earliest failed item is
+ * reported with its position ({@link BatchItemFailedException}); every item before it has been
+ * processed, so a listener can commit up to that position and have only the rest redelivered.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+public class KeyOrderedExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    /**
+     * Thrown by {@link #processAll} when an item failed
+     * Items before {@link #getIndex()} were all processed; later items may or may not have been.
+     */
+    public static class BatchItemFailedException extends IllegalStateException {
+        private final int index;
+
+        public BatchItemFailedException(int index, Throwable cause) {
+            super("Batch processing failed at item " + index, cause);
+            this.index = index;
+        }
+
+        /**
+         * Position of the earliest failed item in the batch
+         */
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    public KeyOrderedExecutor() {
+        this(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kafka-worker-", 0).factory()));
+    }
+
+    KeyOrderedExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Run the handler for every item and wait for all of them
+     * @param items the batch, in delivery order
+     * @param key extracts the ordering key (items with equal keys, including null, run in order)
+     * @param handler processes one item
+     * @throws BatchItemFailedException if a handler failed (after the rest of the batch completed)
+     */
+    public <T> void processAll(List<T> items, Function<? super T, ?> key, Consumer<? super T> handler) {
+        Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            groups.computeIfAbsent(key.apply(items.get(i)), k -> new ArrayList<>()).add(i);
+        }
+        if (groups.size() <= 1) {
+            processGroup(items, groups.isEmpty() ? List.of() : groups.values().iterator().next(), handler);
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups.values()) {
+            futures.add(executor.submit(() -> processGroup(items, group, handler)));
+        }
+
+        BatchItemFailedException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Interrupted while processing batch", e);
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof BatchItemFailedException groupFailure)) {
+                    throw new IllegalStateException("Batch processing failed", e.getCause());
+                }
+                if (failure == null) {
+                    failure = groupFailure;
+                } else if (groupFailure.getIndex() < failure.getIndex()) {
+                    groupFailure.addSuppressed(failure);
+                    failure = groupFailure;
+                } else {
+                    failure.addSuppressed(groupFailure);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static <T> void processGroup(List<T> items, List<Integer> group, Consumer<? super T> handler) {
+        for (int index : group) {
+            try {
+                handler.accept(items.get(index));
+            } catch (RuntimeException e) {
+                throw new BatchItemFailedException(index, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.SpringBootDemo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity, lock-free history of consumed messages
+ *
+ * Every message gets a sequence number (0, 1, 2, ...) and is stored in a ring of slots, overwriting
+ * the oldest message once the ring is full. Adding is one atomic increment and one compare-and-set of
+ * the slot (a slot only ever moves to a higher sequence), and readers page through the retained messages with a sequence cursor without blocking writers.
+ *
+ * @param <T> the message type
+ * @author User Management Team
+ * @version 1.0
+ */
+public class MessageHistory<T> {
+
+    /**
+     * A message with its sequence number
+     */
+    public record Entry<T>(long sequence, T message) {
+    }
+
+    /**
+     * One page of history
+     * @param entries the messages after the requested sequence, oldest first
+     * @param nextSince the cursor for the following page (the last returned sequence)
+     * @param oldestSequence the oldest sequence still retained
+     * @param latestSequence the newest sequence written (-1 if none)
+     * @param truncated whether messages after the requested sequence were already overwritten
+     */
+    public record Page<T>(List<Entry<T>> entries, long nextSince, long oldestSequence, long latestSequence,
+                          boolean truncated) {
+    }
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong clearedBefore = new AtomicLong();
+
+    /**
+     * @param capacity the number of messages kept (rounded up to a power of two)
+     */
+    public MessageHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Append a message
+     * @return its sequence number
+     */
+    public long add(T message) {
+        long sequence = nextSequence.getAndIncrement();
+        // A writer delayed past a full ring finds a newer entry in its slot and must not replace it
+        slots.accumulateAndGet(slot(sequence), new Entry<>(sequence, message),
+                (current, entry) -> current == null || current.sequence() < entry.sequence() ? entry : current);
+        return sequence;
+    }
+
+    /**
+     * Append messages in order
+     */
+    public void addAll(List<? extends T> messages) {
+        for (T message : messages) {
+            add(message);
+        }
+    }
+
+    /**
+     * Read retained messages with a sequence greater than since
+     * @param since the last sequence already seen (-1 to start from the oldest retained message)
+     * @param limit the maximum number of messages to return
+     */
+    public Page<T> read(long since, int limit) {
+        long end = nextSequence.get();
+        long oldest = oldestSequence(end);
+        long sequence = Math.max(since + 1, oldest);
+        // Messages hidden by clear() are not "lost", only those overwritten by newer ones
+        boolean truncated = Math.max(since + 1, clearedBefore.get()) < end - slots.length();
+
+        List<Entry<T>> entries = new ArrayList<>(Math.min(limit, (int) Math.max(0, end - sequence)));
+        long last = Math.max(since, oldest - 1);
+        while (sequence < end && entries.size() < limit) {
+            Entry<T> entry = slots.get(slot(sequence));
+            if (entry == null || entry.sequence() < sequence) {
+                // Sequence reserved but not yet written; stop so the next read does not miss it
+                break;
+            }
+            if (entry.sequence() == sequence) {
+                entries.add(entry);
+                last = sequence;
+            } else {
+                // Overwritten while reading: this reader fell a full ring behind
+                truncated = true;
+            }
+            sequence++;
+        }
+        return new Page<>(entries, last, oldest, end - 1, truncated);
+    }
+
+    /**
+     * All retained messages, oldest first
+     */
+    public List<T> snapshot() {
+        Page<T> page = read(-1, capacity());
+        List<T> messages = new ArrayList<>(page.entries().size());
+        for (Entry<T> entry : page.entries()) {
+            messages.add(entry.message());
+        }
+        return messages;
+    }
+
+    /**
+     * Hide everything written so far; sequence numbers keep increasing
+     */
+    public void clear() {
+        clearedBefore.accumulateAndGet(nextSequence.get(), Math::max);
+    }
+
+    private long oldestSequence(long end) {
+        return Math.max(clearedBefore.get(), Math.max(0, end - slots.length()));
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.OutboxEvent;
+import com.example.SpringBootDemo.event.EventCodec;
+import com.example.SpringBootDemo.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes outbox events to Kafka in batches
+ *
+ * Each poll claims the oldest unsent events in a short transaction: the rows are locked only long
+ * enough to mark them claimed for twice the send timeout. While that claim lasts, relays on other
+ * nodes find the oldest events claimed and back off, so only one relay publishes at a time. The
+ * batch is then sent asynchronously outside any transaction, and a second short transaction marks
+ * the acknowledged events sent and releases the rest. A relay that dies mid-batch blocks the others
+ * only until its claim expires. Full batches are drained back to back.
+ *
+ * Ordering: events are sent in insertion order and the producer is idempotent, so events with the
+ * same key reach their partition in order. If an event fails, later events with the same key are
+ * left unsent even when they were delivered, and are published again after the failed one; consumers
+ * may therefore see duplicates (same eventId) but always end on the latest state.
+ *
+ * Failures: every failed send is counted on the event. After max-attempts failures the event is
+ * parked (outbox.events.parked): it is no longer published, so later events with its key go out
+ * again. Parked events are kept, not purged, so they can be inspected and replayed by hand.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final Timer batchTimer;
+    private final Timer deliveryLag;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.send-timeout-ms:30000}") long sendTimeoutMillis,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.maxAttempts = maxAttempts;
+        this.retention = Duration.ofHours(retentionHours);
+
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to claim, publish and mark one outbox batch")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+                .description("Time from writing an outbox event to its acknowledgement by Kafka")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("outbox.events.published")
+                .description("Outbox events published to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events.failed")
+                .description("Outbox event sends that failed")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("outbox.events.parked")
+                .description("Outbox events given up on after too many failed sends")
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events waiting to be published (as of the last poll)")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.oldest.age", oldestPendingAgeMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event (as of the last poll)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publish pending events until the outbox is drained or a send fails
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:200}")
+    public void relay() {
+        boolean drained;
+        try {
+            BatchResult result;
+            do {
+                result = relayBatch();
+            } while (!result.claimedElsewhere && result.claimed == batchSize && result.published == result.claimed);
+            drained = !result.claimedElsewhere && result.published == result.claimed;
+        } catch (RuntimeException e) {
+            logger.warn("Outbox relay failed, will retry", e);
+            drained = false;
+        }
+
+        if (drained) {
+            pendingEvents.set(0);
+            oldestPendingAgeMillis.set(0);
+        } else {
+            updateBacklogMetrics();
+        }
+    }
+
+    /**
+     * Delete events published longer ago than the retention period
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:3600000}")
+    public void purgeSentEvents() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteSentBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} published outbox events", deleted);
+        }
+    }
+
+    private record BatchResult(int claimed, int published, boolean claimedElsewhere) {
+    }
+
+    private BatchResult relayBatch() {
+        Timer.Sample sample = Timer.start();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null) {
+            return new BatchResult(0, 0, true);
+        }
+        if (batch.isEmpty()) {
+            return new BatchResult(0, 0, false);
+        }
+
+        // Send everything first so the producer can batch, then collect the acknowledgements in order
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                futures.add(kafkaTemplate.send(record(event)));
+            } catch (RuntimeException e) {
+                // Typically metadata could not be fetched (broker unreachable); do not block on every remaining event
+                futures.add(CompletableFuture.failedFuture(e));
+                break;
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        Set<String> failedKeys = new HashSet<>();
+        List<Long> sentIds = new ArrayList<>(futures.size());
+        List<Long> failedIds = new ArrayList<>();
+        List<Long> parkedIds = new ArrayList<>();
+        List<Long> unsentIds = new ArrayList<>();
+        LocalDateTime sentAt = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            if (i >= futures.size()) {
+                unsentIds.add(event.getId());
+                continue;
+            }
+            String orderingKey = event.getTopic() + '\u0000' + event.getMessageKey();
+            boolean acknowledged = await(futures.get(i), deadline);
+
+            if (!acknowledged) {
+                failedKeys.add(orderingKey);
+                failedIds.add(event.getId());
+                unsentIds.add(event.getId());
+                failedCounter.increment();
+                if (event.getAttempts() + 1 >= maxAttempts) {
+                    parkedIds.add(event.getId());
+                    logger.error("Parking outbox event {} after {} failed sends", event, event.getAttempts() + 1);
+                }
+            } else if (!failedKeys.contains(orderingKey)) {
+                sentIds.add(event.getId());
+                deliveryLag.record(Duration.between(event.getCreatedAt(), sentAt));
+            } else {
+                unsentIds.add(event.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxEventRepository.markSent(sentIds, sentAt);
+            }
+            if (!failedIds.isEmpty()) {
+                outboxEventRepository.incrementAttempts(failedIds);
+            }
+            if (!parkedIds.isEmpty()) {
+                outboxEventRepository.park(parkedIds, sentAt);
+            }
+            if (!unsentIds.isEmpty()) {
+                outboxEventRepository.updateClaim(unsentIds, null);
+            }
+        });
+        publishedCounter.increment(sentIds.size());
+        parkedCounter.increment(parkedIds.size());
+        sample.stop(batchTimer);
+        return new BatchResult(batch.size(), sentIds.size(), false);
+    }
+
+    /**
+     * Claim the oldest unsent events for this relay
+     * @return the claimed events, or null if another relay's claim on them has not expired yet
+     */
+    private List<OutboxEvent> claimBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findBySentAtIsNullAndParkedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : batch) {
+            if (event.getClaimedUntil() != null && event.getClaimedUntil().isAfter(now)) {
+                return null;
+            }
+        }
+        if (!batch.isEmpty()) {
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                ids.add(event.getId());
+            }
+            outboxEventRepository.updateClaim(ids, now.plus(Duration.ofMillis(sendTimeoutMillis * 2)));
+        }
+        return batch;
+    }
+
+    private static ProducerRecord<String, Object> record(OutboxEvent event) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(event.getTopic(), event.getMessageKey(), event.getPayload());
+        record.headers().add(EventCodec.SCHEMA_VERSION_HEADER, new byte[]{(byte) event.getSchemaVersion()});
+        return record;
+    }
+
+    private boolean await(CompletableFuture<SendResult<String, Object>> future, long deadline) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Outbox send failed", e);
+            return false;
+        }
+    }
+
+    private void updateBacklogMetrics() {
+        try {
+            pendingEvents.set(outboxEventRepository.countBySentAtIsNullAndParkedAtIsNull());
+            oldestPendingAgeMillis.set(outboxEventRepository.findFirstBySentAtIsNullAndParkedAtIsNullOrderByIdAsc()
+                    .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now()).toMillis())
+                    .orElse(0L));
+        } catch (RuntimeException e) {
+            logger.debug("Could not read outbox backlog", e);
+        }
+    }
+}
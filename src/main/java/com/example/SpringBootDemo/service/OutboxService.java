@@ -0,0 +1,100 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.config.KafkaConfig;
+import com.example.SpringBootDemo.entity.OutboxEvent;
+import com.example.SpringBootDemo.event.EventCodec;
+import com.example.SpringBootDemo.event.NotificationEvent;
+import com.example.SpringBootDemo.event.NotificationEventSerializer;
+import com.example.SpringBootDemo.event.UserEvent;
+import com.example.SpringBootDemo.event.UserEventSerializer;
+import com.example.SpringBootDemo.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service writing events to the transactional outbox
+ *
+ * Events join the caller's transaction, so they are stored only if the change they describe commits.
+ * {@link OutboxRelay} publishes them to Kafka afterwards, off the request path.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserEventSerializer userEventSerializer = new UserEventSerializer();
+    private final NotificationEventSerializer notificationEventSerializer = new NotificationEventSerializer();
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    /**
+     * Queue a user event for the user-events topic, keyed by user ID
+     */
+    public void publishUserEvent(String eventType, String userId, String userDetails) {
+        publish(UserEvent.of(eventType, userId, userDetails));
+    }
+
+    /**
+     * Queue a user event for the user-events topic, keyed by user ID
+     */
+    public void publish(UserEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+    }
+
+    /**
+     * Queue many user events at once (batch-inserted)
+     */
+    public void publishUserEvents(List<UserEvent> events) {
+        List<OutboxEvent> outboxEvents = new ArrayList<>(events.size());
+        for (UserEvent event : events) {
+            outboxEvents.add(toOutboxEvent(event));
+        }
+        outboxEventRepository.saveAll(outboxEvents);
+    }
+
+    /**
+     * Queue a notification for the notifications topic, keyed by recipient
+     */
+    public void publishNotification(String recipient, String subject, String content) {
+        publish(NotificationEvent.of(recipient, subject, content));
+    }
+
+    /**
+     * Queue a notification for the notifications topic, keyed by recipient
+     */
+    public void publish(NotificationEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+    }
+
+    /**
+     * Queue many notifications at once (batch-inserted)
+     */
+    public void publishNotifications(List<NotificationEvent> events) {
+        List<OutboxEvent> outboxEvents = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            outboxEvents.add(toOutboxEvent(event));
+        }
+        outboxEventRepository.saveAll(outboxEvents);
+    }
+
+    private OutboxEvent toOutboxEvent(UserEvent event) {
+        byte[] payload = userEventSerializer.serialize(KafkaConfig.USER_EVENTS_TOPIC, event);
+        return new OutboxEvent(KafkaConfig.USER_EVENTS_TOPIC, event.key(), payload, EventCodec.SCHEMA_VERSION);
+    }
+
+    private OutboxEvent toOutboxEvent(NotificationEvent event) {
+        byte[] payload = notificationEventSerializer.serialize(KafkaConfig.NOTIFICATIONS_TOPIC, event);
+        return new OutboxEvent(KafkaConfig.NOTIFICATIONS_TOPIC, event.recipient(), payload, EventCodec.SCHEMA_VERSION);
+    }
+}
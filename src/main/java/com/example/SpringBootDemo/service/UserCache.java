@@ -0,0 +1,187 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of users, keyed by ID and by email
+ *
+ * Entries expire after a TTL and the least valuable entries are evicted beyond the maximum size.
+ * Hit, miss and eviction counts are published to Micrometer as cache.* metrics
+ * (cache="users.byId" and cache="users.byEmail").
+ *
+ * The cache keeps its own copy of each user and hands every caller a fresh copy, so a caller
+ * changing the returned user affects neither the cache nor other callers. Write paths load
+ * users from the repository and evict them here afterwards.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+public class UserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCache.class);
+
+    private final Cache<Long, User> usersById;
+
+    // Email -> ID only; the user itself always comes from usersById, so an email entry is never stale data
+    private final Cache<String, Long> idsByEmail;
+
+    @Autowired
+    public UserCache(@Value("${app.cache.users.max-size:10000}") long maxSize,
+                     @Value("${app.cache.users.ttl-seconds:300}") long ttlSeconds,
+                     MeterRegistry meterRegistry) {
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.byEmail");
+    }
+
+    /**
+     * Get a user by ID, loading and caching it on a miss
+     * @param id the user ID
+     * @param loader loads the user from the database
+     * @return a copy of the cached user
+     */
+    public Optional<User> getById(Long id, Function<Long, Optional<User>> loader) {
+        User user = usersById.get(id, key -> loader.apply(key).map(User::new).orElse(null));
+        if (user == null) {
+            return Optional.empty();
+        }
+        idsByEmail.put(user.getEmail(), user.getId());
+        return Optional.of(new User(user));
+    }
+
+    /**
+     * Get a user by email, loading and caching it on a miss
+     * @param email the email address
+     * @param loader loads the user from the database
+     * @return a copy of the cached user
+     */
+    public Optional<User> getByEmail(String email, Function<String, Optional<User>> loader) {
+        Long id = idsByEmail.getIfPresent(email);
+        if (id != null) {
+            User cached = usersById.getIfPresent(id);
+            if (cached != null && email.equals(cached.getEmail())) {
+                return Optional.of(new User(cached));
+            }
+        }
+
+        Optional<User> user = loader.apply(email);
+        user.ifPresent(this::put);
+        return user;
+    }
+
+    /**
+     * Add or replace a user in the cache (a copy of it, so later changes to the given user are not cached)
+     */
+    public void put(User user) {
+        if (user.getId() != null) {
+            usersById.put(user.getId(), new User(user));
+            idsByEmail.put(user.getEmail(), user.getId());
+        }
+    }
+
+    /**
+     * Drop a user from the cache
+     */
+    public void evict(Long id) {
+        User previous = usersById.asMap().remove(id);
+        if (previous != null) {
+            idsByEmail.invalidate(previous.getEmail());
+        }
+    }
+
+    /**
+     * Drop the user cached under the given email, if any
+     */
+    public void evictByEmail(String email) {
+        Long id = idsByEmail.getIfPresent(email);
+        if (id != null) {
+            evict(id);
+        }
+    }
+
+    /**
+     * Drop a user now and again once the current transaction commits,
+     * so a concurrent reader cannot re-cache the pre-commit state
+     */
+    public void evictOnCommit(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop several users now and again once the current transaction commits
+     */
+    public void evictOnCommit(Collection<Long> ids) {
+        ids.forEach(this::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(UserCache.this::evict);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop every cached user
+     */
+    public void evictAll() {
+        usersById.invalidateAll();
+        idsByEmail.invalidateAll();
+        logger.info("Evicted all cached users");
+    }
+
+    /**
+     * Drop every cached user now and again once the current transaction commits
+     */
+    public void evictAllOnCommit() {
+        evictAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAll();
+                }
+            });
+        }
+    }
+
+    public long size() {
+        return usersById.estimatedSize();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.config.KafkaConfig;
+import com.example.SpringBootDemo.event.UserEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Evicts users from the local {@link UserCache} when another node changes them,
+ * and advances the local {@link UserChangeStamp}
+ *
+ * Deliberately a broadcast: every instance consumes user-events in its own consumer group, so each
+ * node sees every USER_UPDATED and USER_DELETED event (a shared group would split the partitions and
+ * leave each node blind to most changes). The group ID is stable per instance
+ * (app.cache.users.invalidation-group-id, by default derived from the host name), so a restart rejoins
+ * its group instead of leaving an orphaned group on the broker each time; instances sharing a host
+ * name must be given distinct IDs. A new group starts from the latest offset because older events
+ * cannot concern entries cached after startup; events replayed after a restart only cause evictions.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+public class UserCacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheInvalidationListener.class);
+
+    private final UserCache userCache;
+    private final UserChangeStamp userChangeStamp;
+
+    @Autowired
+    public UserCacheInvalidationListener(UserCache userCache, UserChangeStamp userChangeStamp) {
+        this.userCache = userCache;
+        this.userChangeStamp = userChangeStamp;
+    }
+
+    @KafkaListener(topics = KafkaConfig.USER_EVENTS_TOPIC,
+            groupId = "${app.cache.users.invalidation-group-id:user-cache-${HOSTNAME:local}}",
+            properties = "auto.offset.reset=latest")
+    public void onUserEvent(@Payload UserEvent event) {
+        // Any user event may change list and statistics responses, including this node's own (a harmless extra advance)
+        userChangeStamp.changed();
+        if (!"USER_UPDATED".equals(event.eventType()) && !"USER_DELETED".equals(event.eventType())
+                && !"USERS_UPDATED".equals(event.eventType())) {
+            return;
+        }
+        List<Long> ids;
+        try {
+            ids = event.userIds();
+        } catch (NumberFormatException e) {
+            ids = List.of();
+        }
+        if (ids.isEmpty()) {
+            // A bulk change by filter does not name the users; for any other event the ID is missing or invalid.
+            // Either way, drop everything rather than serve stale users
+            if (!"USERS_UPDATED".equals(event.eventType())) {
+                logger.warn("User event without a valid user ID, evicting all cached users: {}", event);
+            }
+            userCache.evictAll();
+            return;
+        }
+        ids.forEach(userCache::evict);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.SpringBootDemo.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table-level change stamp of the users table
+ *
+ * Advances whenever users are created, changed or deleted, whether through entities
+ * ({@link UserChangeStampListener}), bulk or login-bookkeeping updates, or on another node
+ * (seen through user-events). List and statistics responses use it as their ETag, so an
+ * unchanged stamp means the response would be unchanged too.
+ *
+ * The stamp advances only once a write's transaction has completed. Read the stamp before
+ * computing a response: a write committing in between then at worst makes the client fetch again.
+ * The process start time is part of the stamp, so stamps from before a restart never match.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+public class UserChangeStamp {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * The current stamp, e.g. "m1x2k9q0-42"
+     */
+    public String current() {
+        return epoch + "-" + changes.get();
+    }
+
+    /**
+     * Record a change that is already visible to readers
+     */
+    public void changed() {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Record a change made in the current transaction, once it completes
+     * Many changes in one transaction (e.g. an import) advance the stamp once.
+     */
+    public void changedOnCompletion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(UserChangeStamp.this);
+                changed();
+            }
+        });
+    }
+}
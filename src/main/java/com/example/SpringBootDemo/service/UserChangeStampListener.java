@@ -0,0 +1,34 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that advances the {@link UserChangeStamp} on every user write
+ *
+ * Bulk JPQL and plain JDBC updates bypass entity callbacks; their callers advance the stamp themselves.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+public class UserChangeStampListener {
+
+    private final UserChangeStamp userChangeStamp;
+
+    @Autowired
+    public UserChangeStampListener(UserChangeStamp userChangeStamp) {
+        this.userChangeStamp = userChangeStamp;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        userChangeStamp.changedOnCompletion();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last user on a page of a keyset paginated user listing
+ *
+ * Encoded as an opaque, URL-safe continuation token so clients never depend on its layout.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+public final class UserCursor {
+
+    /**
+     * Supported orderings for user listings
+     */
+    public enum SortKey {
+        ID("id"),
+        CREATED_AT("createdAt");
+
+        private final String param;
+
+        SortKey(String param) {
+            this.param = param;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        /**
+         * Resolve a sort request parameter, defaulting to ID ordering
+         * @throws IllegalArgumentException if the parameter is not a supported sort key
+         */
+        public static SortKey fromParam(String param) {
+            if (param == null || param.isBlank()) {
+                return ID;
+            }
+            for (SortKey key : values()) {
+                if (key.param.equalsIgnoreCase(param)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort: " + param + " (expected 'id' or 'createdAt')");
+        }
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final SortKey sortKey;
+    private final Long id;
+    private final LocalDateTime createdAt;
+
+    private UserCursor(SortKey sortKey, Long id, LocalDateTime createdAt) {
+        this.sortKey = sortKey;
+        this.id = id;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Create the cursor pointing just after the given user
+     */
+    public static UserCursor after(User user, SortKey sortKey) {
+        return new UserCursor(sortKey, user.getId(), user.getCreatedAt());
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Encode this cursor as an opaque continuation token
+     */
+    public String encode() {
+        String raw = sortKey == SortKey.CREATED_AT
+                ? sortKey.name() + SEPARATOR + id + SEPARATOR + createdAt
+                : sortKey.name() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token produced by {@link #encode()}
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static UserCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            SortKey sortKey = SortKey.valueOf(parts[0]);
+            Long id = Long.valueOf(parts[1]);
+
+            if (sortKey == SortKey.CREATED_AT) {
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new UserCursor(sortKey, id, LocalDateTime.parse(parts[2]));
+            }
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new UserCursor(sortKey, id, null);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
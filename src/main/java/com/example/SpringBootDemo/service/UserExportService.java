@@ -0,0 +1,212 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service for streaming the user directory out as NDJSON or CSV
+ *
+ * Users are read through a database cursor and written to the output as they arrive,
+ * then detached from the persistence context, so memory stays constant regardless of table size.
+ * Passwords are never exported.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Service
+public class UserExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+
+    /**
+     * Flush the output every this many rows so data reaches the client while the export runs
+     */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private static final String[] COLUMNS = {
+            "id", "firstName", "lastName", "email", "phone", "role", "enabled",
+            "accountNonLocked", "lastLogin", "createdAt", "updatedAt"
+    };
+
+    /**
+     * Supported export formats
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Resolve a format request parameter, defaulting to NDJSON
+         * @throws IllegalArgumentException if the format is not supported
+         */
+        public static Format fromParam(String param) {
+            if (param == null || param.isBlank()) {
+                return NDJSON;
+            }
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(param)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + param + " (expected 'ndjson' or 'csv')");
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write every user to the given output stream in the requested format
+     * @param format the output format
+     * @param out the stream to write to (not closed by this method)
+     * @return the number of users exported
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            JsonGenerator json = null;
+            if (format == Format.NDJSON) {
+                json = objectMapper.getFactory().createGenerator(writer);
+                json.setRootValueSeparator(null); // lines are separated explicitly below
+            } else {
+                writeCsvRow(writer, COLUMNS);
+            }
+
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                if (json != null) {
+                    writeJsonLine(json, user);
+                } else {
+                    writeCsvRow(writer, toRow(user));
+                }
+
+                // Drop the entity from the persistence context so the session does not grow with the export
+                entityManager.detach(user);
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    if (json != null) {
+                        json.flush();
+                    }
+                    writer.flush();
+                }
+            }
+
+            if (json != null) {
+                json.flush();
+            }
+        }
+
+        writer.flush();
+        logger.info("Exported {} users as {}", count, format);
+        return count;
+    }
+
+    private void writeJsonLine(JsonGenerator json, User user) throws IOException {
+        String[] row = toRow(user);
+        json.writeStartObject();
+        json.writeNumberField(COLUMNS[0], user.getId());
+        for (int i = 1; i < COLUMNS.length; i++) {
+            if (row[i] == null) {
+                json.writeNullField(COLUMNS[i]);
+            } else if (COLUMNS[i].equals("enabled") || COLUMNS[i].equals("accountNonLocked")) {
+                json.writeBooleanField(COLUMNS[i], Boolean.parseBoolean(row[i]));
+            } else {
+                json.writeStringField(COLUMNS[i], row[i]);
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private String[] toRow(User user) {
+        return new String[] {
+                String.valueOf(user.getId()),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getEmail(),
+                user.getPhone(),
+                user.getRole() != null ? user.getRole().name() : null,
+                String.valueOf(user.isEnabled()),
+                String.valueOf(user.isAccountNonLocked()),
+                format(user.getLastLogin()),
+                format(user.getCreatedAt()),
+                format(user.getUpdatedAt())
+        };
+    }
+
+    private static String format(LocalDateTime time) {
+        return time != null ? time.toString() : null;
+    }
+
+    /**
+     * Write one RFC 4180 CSV row, quoting fields that contain separators, quotes or line breaks
+     */
+    private static void writeCsvRow(Writer writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String field = fields[i];
+            if (field == null) {
+                continue;
+            }
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                    || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(field);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
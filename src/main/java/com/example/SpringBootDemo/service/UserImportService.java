@@ -0,0 +1,430 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.dto.UserImportResult;
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.entity.UserRole;
+import com.example.SpringBootDemo.event.NotificationEvent;
+import com.example.SpringBootDemo.event.UserEvent;
+import com.example.SpringBootDemo.repository.UserRepository;
+import com.example.SpringBootDemo.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for importing many users in one request (JSON array or CSV)
+ *
+ * The work is done per batch rather than per user: rows are validated in memory, existing emails
+ * are found with one set-based query per 1000 rows, passwords are hashed in parallel on the hashing
+ * pool before any transaction starts, and users, domain counters and outbox events are written in a
+ * single transaction with JDBC batching. Invalid rows are reported, not fatal.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    /**
+     * Emails checked per existence query (keeps the IN list a reasonable size)
+     */
+    private static final int EXISTS_CHUNK = 1000;
+
+    /**
+     * Flush and clear the persistence context every this many users so it does not grow with the import
+     */
+    private static final int FLUSH_INTERVAL = 500;
+
+    /**
+     * Translates exceptions from the explicit flushes, which no repository proxy sees
+     */
+    private static final HibernateJpaDialect JPA_DIALECT = new HibernateJpaDialect();
+
+    /**
+     * Supported input formats
+     */
+    public enum Format {
+        JSON, CSV;
+
+        /**
+         * Resolve the request content type
+         * @throws IllegalArgumentException if the content type is not supported
+         */
+        public static Format fromContentType(String contentType) {
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (type.startsWith("application/json")) {
+                return JSON;
+            }
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            throw new IllegalArgumentException("Unsupported import content type: " + contentType
+                    + " (expected 'application/json' or 'text/csv')");
+        }
+    }
+
+    /**
+     * One input row: a parsed user, or the reason it could not be parsed
+     */
+    private record Row(int number, User user, String email, String error) {
+        static Row parsed(int number, User user) {
+            return new Row(number, user, user.getEmail(), null);
+        }
+
+        static Row failed(int number, String email, String error) {
+            return new Row(number, null, email, error);
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final OutboxService outboxService;
+    private final EmailDomainCounterService emailDomainCounterService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.max-rows:10000}")
+    private int maxRows = 10000;
+
+    @Autowired
+    public UserImportService(UserRepository userRepository,
+                             PasswordEncoder passwordEncoder,
+                             OutboxService outboxService,
+                             EmailDomainCounterService emailDomainCounterService,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.outboxService = outboxService;
+        this.emailDomainCounterService = emailDomainCounterService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import users from the given stream
+     * @param format the input format
+     * @param in the input (not closed by this method)
+     * @return how many rows were imported and why the others were rejected
+     * @throws IllegalArgumentException if the input is malformed or has more than the allowed number of rows
+     * @throws org.springframework.dao.DataIntegrityViolationException if one of the emails was registered
+     *         concurrently, after the existence check (nothing is imported)
+     */
+    public UserImportResult importUsers(Format format, InputStream in) throws IOException {
+        long started = System.currentTimeMillis();
+        List<Row> rows = format == Format.JSON ? readJson(in) : readCsv(in);
+        UserImportResult result = new UserImportResult(rows.size());
+
+        Map<String, Row> accepted = validate(rows, result);
+        rejectExistingEmails(accepted, result);
+
+        List<User> users = new ArrayList<>(accepted.size());
+        for (Row row : accepted.values()) {
+            users.add(row.user());
+        }
+        hashPasswords(users);
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(users));
+        } catch (PersistenceException e) {
+            DataAccessException translated = JPA_DIALECT.translateExceptionIfPossible(e);
+            throw translated != null ? translated : e;
+        }
+
+        result.setImported(users.size());
+        logger.info("Imported {} of {} users ({} rejected) in {} ms",
+                users.size(), rows.size(), result.getFailed(), System.currentTimeMillis() - started);
+        return result;
+    }
+
+    /**
+     * Apply the entity constraints and reject duplicate emails within the import
+     * @return the valid rows keyed by email, in input order
+     */
+    private Map<String, Row> validate(List<Row> rows, UserImportResult result) {
+        Map<String, Row> accepted = new LinkedHashMap<>();
+        for (Row row : rows) {
+            if (row.error() != null) {
+                result.addError(row.number(), row.email(), row.error());
+                continue;
+            }
+            User user = row.user();
+            Set<ConstraintViolation<User>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                result.addError(row.number(), row.email(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            Row previous = accepted.putIfAbsent(user.getEmail(), row);
+            if (previous != null) {
+                result.addError(row.number(), row.email(), "Duplicate of row " + previous.number());
+                continue;
+            }
+
+            // Same defaults as a single create; the database assigns the ID and version
+            user.setId(null);
+            user.setVersion(null);
+            if (user.getRole() == null) {
+                user.setRole(UserRole.USER);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Drop rows whose email is already registered, with one query per chunk of emails
+     */
+    private void rejectExistingEmails(Map<String, Row> accepted, UserImportResult result) {
+        List<String> emails = new ArrayList<>(accepted.keySet());
+        for (int from = 0; from < emails.size(); from += EXISTS_CHUNK) {
+            List<String> chunk = emails.subList(from, Math.min(from + EXISTS_CHUNK, emails.size()));
+            for (String existing : userRepository.findExistingEmails(chunk)) {
+                Row row = accepted.remove(existing);
+                if (row != null) {
+                    result.addError(row.number(), existing, "User with email " + existing + " already exists");
+                }
+            }
+        }
+    }
+
+    /**
+     * Hash all passwords before the transaction starts, in parallel when the encoder supports it
+     */
+    private void hashPasswords(List<User> users) {
+        List<String> rawPasswords = new ArrayList<>(users.size());
+        for (User user : users) {
+            String password = user.getPassword();
+            rawPasswords.add(password != null && !password.isEmpty() ? password : null);
+        }
+
+        List<String> hashes;
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedPasswordEncoder) {
+            hashes = boundedPasswordEncoder.encodeAll(rawPasswords);
+        } else {
+            hashes = new ArrayList<>(rawPasswords.size());
+            for (String rawPassword : rawPasswords) {
+                hashes.add(rawPassword != null ? passwordEncoder.encode(rawPassword) : null);
+            }
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            if (hashes.get(i) != null) {
+                users.get(i).setPassword(hashes.get(i));
+            }
+        }
+    }
+
+    /**
+     * Insert the users, update the domain counters and queue the events
+     */
+    private void insert(List<User> users) {
+        List<UserEvent> userEvents = new ArrayList<>(users.size());
+        List<NotificationEvent> notifications = new ArrayList<>(users.size());
+        Map<String, Long> countsByDomain = new HashMap<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            entityManager.persist(user);
+
+            userEvents.add(UserEvent.of("USER_CREATED", user.getId().toString(),
+                    String.format("User %s %s created with email %s", user.getFirstName(), user.getLastName(), user.getEmail())));
+            notifications.add(NotificationEvent.of(user.getEmail(), "Welcome to User Management System",
+                    String.format("Hello %s, your account has been created successfully!", user.getFirstName())));
+            if (user.getEmailDomain() != null) {
+                countsByDomain.merge(user.getEmailDomain(), 1L, Long::sum);
+            }
+
+            if ((i + 1) % FLUSH_INTERVAL == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        emailDomainCounterService.usersAdded(countsByDomain);
+        outboxService.publishUserEvents(userEvents);
+        outboxService.publishNotifications(notifications);
+    }
+
+    /**
+     * Read a JSON array of user objects; an object that does not map to a user becomes a row error
+     */
+    private List<Row> readJson(InputStream in) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of users");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                int number = rows.size() + 1;
+                checkRowLimit(number);
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    rows.add(Row.parsed(number, objectMapper.treeToValue(node, User.class)));
+                } catch (JsonProcessingException e) {
+                    rows.add(Row.failed(number, node.path("email").asText(null), "Invalid user: " + e.getOriginalMessage()));
+                }
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("Expected only user objects in the JSON array");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        return rows;
+    }
+
+    /**
+     * Read CSV with a header row naming the columns (firstName, lastName, email, phone, password, role)
+     */
+    private List<Row> readCsv(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input needs a header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("firstname", "lastname", "email")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the column: " + required);
+            }
+        }
+
+        List<Row> rows = new ArrayList<>();
+        List<String> fields;
+        while ((fields = readCsvRecord(reader)) != null) {
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue; // blank line
+            }
+            int number = rows.size() + 1;
+            checkRowLimit(number);
+            String email = field(fields, columns, "email");
+            if (fields.size() != header.size()) {
+                rows.add(Row.failed(number, email, "Expected " + header.size() + " fields but found " + fields.size()));
+                continue;
+            }
+
+            User user = new User(field(fields, columns, "firstname"), field(fields, columns, "lastname"),
+                    email, field(fields, columns, "phone"));
+            user.setPassword(field(fields, columns, "password"));
+            String role = field(fields, columns, "role");
+            if (role != null) {
+                try {
+                    user.setRole(UserRole.valueOf(role.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    rows.add(Row.failed(number, email, "Unknown role: " + role));
+                    continue;
+                }
+            }
+            rows.add(Row.parsed(number, user));
+        }
+        return rows;
+    }
+
+    private void checkRowLimit(int rows) {
+        if (rows > maxRows) {
+            throw new IllegalArgumentException("An import is limited to " + maxRows + " users");
+        }
+    }
+
+    /**
+     * Get a column value, or null when the column is absent or the field empty
+     */
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Read one RFC 4180 record (quoted fields may contain separators, quotes and line breaks)
+     * @return the fields, or null at end of input
+     */
+    static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.SpringBootDemo.service;
+
+/**
+ * Thrown when a user looked up by ID or email does not exist
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+public class UserNotFoundException extends RuntimeException {
+
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
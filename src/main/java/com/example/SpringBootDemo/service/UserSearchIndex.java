@@ -0,0 +1,388 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over user names and emails
+ *
+ * Substring queries of three or more characters intersect the posting sets of their trigrams,
+ * then verify the candidates, so a search touches only users that share every trigram with the query.
+ * Shorter queries are answered as word-prefix (typeahead) matches from a sorted term map.
+ * Results are ranked (prefix before word-prefix before inner substring) and cut to a top-k limit.
+ *
+ * The index is built at startup and kept current by {@link UserSearchIndexListener}.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int GRAM = 3;
+
+    /**
+     * Indexed view of one user
+     */
+    public static final class Entry {
+        private final Long id;
+        private final String fullName;
+        private final String email;
+        private final String fullNameKey;
+        private final String emailKey;
+
+        private Entry(User user) {
+            this.id = user.getId();
+            this.fullName = user.getFullName();
+            this.email = user.getEmail();
+            this.fullNameKey = normalize(fullName);
+            this.emailKey = normalize(email);
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> nameGrams = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> emailGrams = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Set<Long>> nameTerms = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<Long>> emailTerms = new ConcurrentSkipListMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * Whether the initial build has completed and searches can be served from the index
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Replace the index contents with the given users
+     */
+    public void rebuild(Stream<User> users) {
+        long started = System.currentTimeMillis();
+        ready = false;
+        entries.clear();
+        nameGrams.clear();
+        emailGrams.clear();
+        nameTerms.clear();
+        emailTerms.clear();
+
+        users.forEach(this::add);
+
+        ready = true;
+        logger.info("Built user search index with {} users in {} ms", entries.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Index a new user, or re-index an existing one after its name or email changed
+     */
+    public void add(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        Entry entry = new Entry(user);
+        entries.compute(entry.id, (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(entry);
+            return entry;
+        });
+    }
+
+    /**
+     * Remove a user from the index
+     */
+    public void remove(Long userId) {
+        entries.computeIfPresent(userId, (id, previous) -> {
+            unindex(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Find users whose full name contains the query, best matches first
+     * @param query the search term (case-insensitive)
+     * @param limit the maximum number of results
+     */
+    public List<Entry> searchNames(String query, int limit) {
+        return search(query, limit, nameGrams, nameTerms, entry -> entry.fullNameKey);
+    }
+
+    /**
+     * Find users whose email contains the query, best matches first
+     * @param query the search term (case-insensitive)
+     * @param limit the maximum number of results
+     */
+    public List<Entry> searchEmails(String query, int limit) {
+        return search(query, limit, emailGrams, emailTerms, entry -> entry.emailKey);
+    }
+
+    /**
+     * Rank users found elsewhere (e.g. by a database query while the index is being built) the way
+     * {@link #searchNames} ranks indexed users, dropping those it would not match
+     * @param users candidate users
+     * @param query the search term (case-insensitive)
+     * @param limit the maximum number of results
+     */
+    public static List<Entry> rankNames(Collection<User> users, String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        List<Entry> candidates = new ArrayList<>(users.size());
+        for (User user : users) {
+            candidates.add(new Entry(user));
+        }
+        return rank(candidates, q, limit, entry -> entry.fullNameKey);
+    }
+
+    private List<Entry> search(String query, int limit,
+                               Map<String, Set<Long>> grams,
+                               NavigableMap<String, Set<Long>> terms,
+                               Function<Entry, String> key) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        Collection<Long> ids = q.length() >= GRAM ? gramCandidates(q, grams) : prefixCandidates(q, terms);
+        List<Entry> candidates = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                candidates.add(entry);
+            }
+        }
+        return rank(candidates, q, limit, key);
+    }
+
+    /**
+     * Keep the k best matches of the normalized query, best first
+     */
+    private static List<Entry> rank(Collection<Entry> candidates, String q, int limit, Function<Entry, String> key) {
+        // Keep the k best matches in a max-heap ordered by rank
+        Comparator<Scored> byRank = Comparator.<Scored>comparingInt(s -> s.score)
+                .thenComparingInt(s -> s.position)
+                .thenComparingInt(s -> s.length)
+                .thenComparingLong(s -> s.entry.id);
+        PriorityQueue<Scored> best = new PriorityQueue<>(byRank.reversed());
+
+        for (Entry entry : candidates) {
+            Scored scored = score(entry, key.apply(entry), q);
+            if (scored == null) {
+                continue;
+            }
+            best.add(scored);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort(byRank);
+        List<Entry> results = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            results.add(scored.entry);
+        }
+        return results;
+    }
+
+    /**
+     * Intersect the posting sets of the query trigrams, smallest first
+     */
+    private Collection<Long> gramCandidates(String q, Map<String, Set<Long>> grams) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : grams(q)) {
+            Set<Long> ids = grams.get(gram);
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Collect users with a term starting with the (short) query
+     */
+    private Collection<Long> prefixCandidates(String q, NavigableMap<String, Set<Long>> terms) {
+        Set<Long> result = new HashSet<>();
+        for (Set<Long> ids : terms.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+            result.addAll(ids);
+        }
+        return result;
+    }
+
+    /**
+     * Rank a candidate: 0 = starts with the query, 1 = a word starts with it, 2 = inner substring
+     */
+    private static Scored score(Entry entry, String text, String q) {
+        int position = text.indexOf(q);
+        if (position < 0) {
+            // Trigram candidates are a superset
+            return null;
+        }
+        int score;
+        if (position == 0) {
+            score = 0;
+        } else if (isWordStart(text, position)) {
+            score = 1;
+        } else {
+            int wordPosition = findWordStart(text, q);
+            if (wordPosition > 0) {
+                position = wordPosition;
+                score = 1;
+            } else if (q.length() >= GRAM) {
+                score = 2;
+            } else {
+                // Short queries only match word prefixes
+                return null;
+            }
+        }
+        return new Scored(entry, score, position, text.length());
+    }
+
+    private static int findWordStart(String text, String q) {
+        int position = text.indexOf(q, 1);
+        while (position > 0) {
+            if (isWordStart(text, position)) {
+                return position;
+            }
+            position = text.indexOf(q, position + 1);
+        }
+        return -1;
+    }
+
+    private static boolean isWordStart(String text, int position) {
+        return position == 0 || !Character.isLetterOrDigit(text.charAt(position - 1));
+    }
+
+    private void index(Entry entry) {
+        for (String gram : grams(entry.fullNameKey)) {
+            nameGrams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(entry.id);
+        }
+        for (String gram : grams(entry.emailKey)) {
+            emailGrams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(entry.id);
+        }
+        for (String term : terms(entry.fullNameKey)) {
+            nameTerms.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(entry.id);
+        }
+        for (String term : terms(entry.emailKey)) {
+            emailTerms.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(entry.id);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (String gram : grams(entry.fullNameKey)) {
+            removePosting(nameGrams, gram, entry.id);
+        }
+        for (String gram : grams(entry.emailKey)) {
+            removePosting(emailGrams, gram, entry.id);
+        }
+        for (String term : terms(entry.fullNameKey)) {
+            removePosting(nameTerms, term, entry.id);
+        }
+        for (String term : terms(entry.emailKey)) {
+            removePosting(emailTerms, term, entry.id);
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long id) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Distinct trigrams of a normalized string
+     */
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Terms used for short prefix queries: the whole text and each word in it
+     */
+    static Set<String> terms(String text) {
+        Set<String> terms = new HashSet<>();
+        if (text.isEmpty()) {
+            return terms;
+        }
+        terms.add(text);
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The form names, emails and queries are compared in: trimmed, single-spaced, lower case
+     */
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Scored {
+        private final Entry entry;
+        private final int score;
+        private final int position;
+        private final int length;
+
+        private Scored(Entry entry, int score, int position, int length) {
+            this.entry = entry;
+            this.score = score;
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JPA entity listener that keeps the {@link UserSearchIndex} current
+ *
+ * Registered on the User entity, so every create, update and delete (through UserService or
+ * directly through the repository) is reflected in the index. The callbacks run at flush, before
+ * the transaction has committed, so the changes are collected per transaction and applied once it
+ * commits; a rolled-back transaction leaves the index untouched. Several changes to one user in a
+ * transaction are applied once, in their final state.
+ *
+ * @author User Management Team
+ * @version 1.0
+ */
+@Component
+public class UserSearchIndexListener {
+
+    private final UserSearchIndex userSearchIndex;
+
+    @Autowired
+    public UserSearchIndexListener(UserSearchIndex userSearchIndex) {
+        this.userSearchIndex = userSearchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        applyOnCommit(user.getId(), user);
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        applyOnCommit(user.getId(), null);
+    }
+
+    /**
+     * Apply a change once the current transaction commits (immediately without one)
+     * @param user the saved user, or null when it was removed
+     */
+    private void applyOnCommit(Long id, User user) {
+        if (id == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(id, user);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, User> pending = (Map<Long, User>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, User> changes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.forEach(UserSearchIndexListener.this::apply);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserSearchIndexListener.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.put(id, user);
+    }
+
+    private void apply(Long id, User user) {
+        if (user != null) {
+            userSearchIndex.add(user);
+        } else {
+            userSearchIndex.remove(id);
+        }
+    }
+}
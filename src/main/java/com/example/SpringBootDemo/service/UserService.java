@@ -1,35 +1,110 @@
 package com.example.SpringBootDemo.service;
 
+import com.example.SpringBootDemo.dto.CursorPage;
+import com.example.SpringBootDemo.dto.Stamped;
+import com.example.SpringBootDemo.dto.UserPatch;
+import com.example.SpringBootDemo.dto.UserSelection;
+import com.example.SpringBootDemo.dto.UserStatistics;
 import com.example.SpringBootDemo.entity.User;
 import com.example.SpringBootDemo.entity.UserRole;
+import com.example.SpringBootDemo.event.UserEvent;
 import com.example.SpringBootDemo.repository.UserRepository;
+import com.example.SpringBootDemo.security.LoginAttemptTracker;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for User-related business logic with security features and Kafka integration
  * Demonstrates service layer patterns, transaction management, security integration, and event publishing
+ * Every public method is timed as users.service (tagged with method and exception)
  */
 @Service
 @Transactional
+@Timed(value = "users.service", description = "UserService calls")
 public class UserService {
     
+    // User IDs named by one USERS_UPDATED event
+    private static final int BULK_EVENT_IDS = 1000;
+    
+    // Statistics windows move in steps of a minute, so they can be part of the ETag
+    private static final long STATISTICS_WINDOW_STEP_MILLIS = 60_000L;
+    
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
+    private final UserSearchIndex userSearchIndex;
+    private final EmailDomainCounterService emailDomainCounterService;
+    private final UserCache userCache;
+    private final UserChangeStamp userChangeStamp;
+    private final LoginAttemptTracker loginAttemptTracker;
+    
+    @Value("${app.pagination.default-page-size:50}")
+    private int defaultPageSize = 50;
+    
+    @Value("${app.pagination.max-page-size:500}")
+    private int maxPageSize = 500;
+    
+    @Value("${app.cache.stats.ttl-seconds:5}")
+    private long statisticsTtlSeconds = 5;
+    
+    private record CachedStatistics(long computedAt, Stamped<UserStatistics> statistics) {
+    }
+    
+    private volatile CachedStatistics cachedStatistics;
+    
+    private LongSupplier clock = System::currentTimeMillis;
     
     @Autowired
     public UserService(UserRepository userRepository, 
                       PasswordEncoder passwordEncoder,
-                      KafkaProducerService kafkaProducerService) {
+                      OutboxService outboxService,
+                      UserSearchIndex userSearchIndex,
+                      EmailDomainCounterService emailDomainCounterService,
+                      UserCache userCache,
+                      UserChangeStamp userChangeStamp,
+                      LoginAttemptTracker loginAttemptTracker) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.kafkaProducerService = kafkaProducerService;
+        this.outboxService = outboxService;
+        this.userSearchIndex = userSearchIndex;
+        this.emailDomainCounterService = emailDomainCounterService;
+        this.userCache = userCache;
+        this.userChangeStamp = userChangeStamp;
+        this.loginAttemptTracker = loginAttemptTracker;
+    }
+    
+    /**
+     * Build the in-memory search index once the application (and its seed data) is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildSearchIndex() {
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            userSearchIndex.rebuild(users);
+        }
     }
     
     /**
@@ -55,15 +130,16 @@ public class UserService {
         }
         
         User savedUser = userRepository.save(user);
+        emailDomainCounterService.userAdded(savedUser.getEmailDomain());
         
         // Send Kafka event for user creation
-        kafkaProducerService.sendUserEvent("USER_CREATED", 
+        outboxService.publishUserEvent("USER_CREATED", 
                 savedUser.getId().toString(), 
                 String.format("User %s %s created with email %s", 
                         savedUser.getFirstName(), savedUser.getLastName(), savedUser.getEmail()));
         
         // Send welcome notification
-        kafkaProducerService.sendNotification(savedUser.getEmail(), 
+        outboxService.publishNotification(savedUser.getEmail(), 
                 "Welcome to User Management System", 
                 String.format("Hello %s, your account has been created successfully!", savedUser.getFirstName()));
         
@@ -79,28 +155,80 @@ public class UserService {
         return userRepository.findAll();
     }
     
+    /**
+     * Get one page of users using keyset (cursor) pagination
+     * Each page is a single index seek, so cost stays flat no matter how deep the client pages
+     * @param cursor the continuation token from the previous page, or null for the first page
+     * @param size the requested page size, or null for the default (capped at the configured maximum)
+     * @param sort the sort key ("id" or "createdAt") used when starting a new listing
+     * @return the page of users and the cursor for the next page
+     * @throws IllegalArgumentException if the cursor, size or sort is invalid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<User> getUsersPage(String cursor, Integer size, String sort) {
+        int pageSize = resolvePageSize(size);
+        
+        // A cursor carries its own sort key so that a listing cannot switch order mid-way
+        UserCursor position = cursor != null && !cursor.isBlank() ? UserCursor.decode(cursor) : null;
+        UserCursor.SortKey sortKey = position != null ? position.getSortKey() : UserCursor.SortKey.fromParam(sort);
+        
+        // Fetch one extra row to find out whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<User> users;
+        if (sortKey == UserCursor.SortKey.CREATED_AT) {
+            users = position == null
+                    ? userRepository.findByCreatedAtNotNullOrderByCreatedAtAscIdAsc(limit)
+                    : userRepository.findPageAfterCreatedAt(position.getCreatedAt(), position.getId(), limit);
+        } else {
+            users = userRepository.findByIdGreaterThanOrderByIdAsc(position == null ? 0L : position.getId(), limit);
+        }
+        
+        if (users.size() <= pageSize) {
+            return new CursorPage<>(users, null, pageSize);
+        }
+        
+        List<User> items = users.subList(0, pageSize);
+        String nextCursor = UserCursor.after(items.get(pageSize - 1), sortKey).encode();
+        return new CursorPage<>(items, nextCursor, pageSize);
+    }
+    
+    /**
+     * Apply the default and the hard maximum to a requested page size
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+    
     /**
      * Get user by ID
+     * Served from the user cache as a copy; changing it is not saved and not seen by other callers
      * @param id the user ID
      * @return the user if found
-     * @throws RuntimeException if user not found
+     * @throws UserNotFoundException if user not found
      */
     @Transactional(readOnly = true)
     public User getUserById(Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        return findUserById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
     }
     
     /**
      * Get user by email
+     * Served from the user cache as a copy; changing it is not saved and not seen by other callers
      * @param email the email address
      * @return the user if found
-     * @throws RuntimeException if user not found
+     * @throws UserNotFoundException if user not found
      */
     @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
+        return findUserByEmail(email)
+                .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
     }
     
     /**
@@ -110,7 +238,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Optional<User> findUserById(Long id) {
-        return userRepository.findById(id);
+        return userCache.getById(id, userRepository::findById);
     }
     
     /**
@@ -120,7 +248,15 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Optional<User> findUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.getByEmail(email, userRepository::findByEmail);
+    }
+    
+    /**
+     * Load a user for modification, bypassing the cache
+     */
+    private User loadUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
     }
     
     /**
@@ -131,8 +267,7 @@ public class UserService {
      * @throws RuntimeException if user not found or email conflict
      */
     public User updateUser(Long id, User updatedUser) {
-        User existingUser = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        User existingUser = loadUser(id);
         
         // Check if email is being changed and if new email already exists
         if (!existingUser.getEmail().equals(updatedUser.getEmail()) &&
@@ -140,6 +275,8 @@ public class UserService {
             throw new IllegalArgumentException("Email " + updatedUser.getEmail() + " is already in use");
         }
         
+        String previousDomain = existingUser.getEmailDomain();
+        
         // Update fields
         existingUser.setFirstName(updatedUser.getFirstName());
         existingUser.setLastName(updatedUser.getLastName());
@@ -157,52 +294,209 @@ public class UserService {
         }
         
         User savedUser = userRepository.save(existingUser);
+        emailDomainCounterService.emailChanged(previousDomain, savedUser.getEmailDomain());
+        userCache.evictOnCommit(id);
         
         // Send Kafka event for user update
-        kafkaProducerService.sendUserEvent("USER_UPDATED", 
+        outboxService.publishUserEvent("USER_UPDATED", 
                 savedUser.getId().toString(), 
                 String.format("User %s %s updated with email %s", 
                         savedUser.getFirstName(), savedUser.getLastName(), savedUser.getEmail()));
         
         return savedUser;
     }
-    
+
+    /**
+     * Apply a partial update to a user
+     * Only the supplied fields that actually differ are written, and the email uniqueness check
+     * runs only when the email changes. Hibernate's dynamic update then writes just those columns.
+     * @param id the user ID to update
+     * @param patch the fields to change and the version the client last read
+     * @return the updated user (unchanged if the patch changes nothing)
+     * @throws ObjectOptimisticLockingFailureException if the user was modified since that version
+     * @throws UserNotFoundException if user not found
+     * @throws IllegalArgumentException if the email is already in use
+     */
+    public User patchUser(Long id, UserPatch patch) {
+        User user = loadUser(id);
+        if (patch.getVersion() == null) {
+            throw new IllegalArgumentException("The version of the user being patched is required");
+        }
+        if (!patch.getVersion().equals(user.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(User.class, id);
+        }
+
+        List<String> changed = new ArrayList<>();
+        String email = patch.getEmail() != null ? patch.getEmail().trim() : null;
+        if (email != null && !email.equals(user.getEmail())) {
+            if (userRepository.existsByEmail(email)) {
+                throw new IllegalArgumentException("Email " + email + " is already in use");
+            }
+            String previousDomain = user.getEmailDomain();
+            user.setEmail(email);
+            emailDomainCounterService.emailChanged(previousDomain, user.getEmailDomain());
+            changed.add("email");
+        }
+        if (patch.getFirstName() != null && !patch.getFirstName().equals(user.getFirstName())) {
+            user.setFirstName(patch.getFirstName());
+            changed.add("firstName");
+        }
+        if (patch.getLastName() != null && !patch.getLastName().equals(user.getLastName())) {
+            user.setLastName(patch.getLastName());
+            changed.add("lastName");
+        }
+        if (patch.getPhone() != null && !patch.getPhone().equals(user.getPhone())) {
+            user.setPhone(patch.getPhone());
+            changed.add("phone");
+        }
+        if (patch.getRole() != null && patch.getRole() != user.getRole()) {
+            user.setRole(patch.getRole());
+            changed.add("role");
+        }
+        // A supplied password is always a change: comparing it would cost as much as encoding it
+        if (patch.getPassword() != null) {
+            user.setPassword(passwordEncoder.encode(patch.getPassword()));
+            changed.add("password");
+        }
+
+        if (changed.isEmpty()) {
+            return user;
+        }
+
+        // Flush now so a concurrent update surfaces here and the returned user carries the new version
+        User savedUser = userRepository.saveAndFlush(user);
+        userCache.evictOnCommit(id);
+        outboxService.publishUserEvent("USER_UPDATED",
+                savedUser.getId().toString(),
+                String.format("User %s %s updated (%s)",
+                        savedUser.getFirstName(), savedUser.getLastName(), String.join(", ", changed)));
+
+        return savedUser;
+    }
+
     /**
      * Delete a user by ID
      * @param id the user ID to delete
      * @throws RuntimeException if user not found
      */
     public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        User user = loadUser(id);
         
         // Send Kafka event before deletion
-        kafkaProducerService.sendUserEvent("USER_DELETED", 
+        outboxService.publishUserEvent("USER_DELETED", 
                 user.getId().toString(), 
                 String.format("User %s %s with email %s was deleted", 
                         user.getFirstName(), user.getLastName(), user.getEmail()));
         
         userRepository.deleteById(id);
+        emailDomainCounterService.userRemoved(user.getEmailDomain());
+        userCache.evictOnCommit(id);
     }
     
     /**
      * Search users by name (first name, last name, or full name)
      * @param searchTerm the search term
-     * @return list of matching users
+     * @return all matching users, best matches first
      */
     @Transactional(readOnly = true)
     public List<User> searchUsersByName(String searchTerm) {
-        return userRepository.findByFullNameContaining(searchTerm);
+        return searchUsersByName(searchTerm, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Search users by name, best matches first
+     * Served from the in-memory trigram index. While the index is being built, a LIKE query finds the
+     * candidates and they are matched and ranked the same way, so results do not depend on startup timing.
+     * Users reach the index once the transaction that saved them has committed
+     * @param searchTerm the search term (case-insensitive)
+     * @param limit the maximum number of users to return
+     * @return list of matching users, ranked
+     */
+    @Transactional(readOnly = true)
+    public List<User> searchUsersByName(String searchTerm, int limit) {
+        String term = UserSearchIndex.normalize(searchTerm);
+        if (!userSearchIndex.isReady()) {
+            List<User> candidates = userRepository.findByFullNameContaining(term);
+            Map<Long, User> candidatesById = candidates.stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            return UserSearchIndex.rankNames(candidates, term, limit).stream()
+                    .map(entry -> candidatesById.get(entry.getId()))
+                    .collect(Collectors.toList());
+        }
+        return loadRanked(userSearchIndex.searchNames(term, limit),
+                user -> UserSearchIndex.normalize(user.getFullName()).contains(term));
+    }
+    
+    /**
+     * Suggest users whose name or email starts with or contains the given text (typeahead)
+     * Answered from the search index alone, without a database round-trip
+     * @param prefix the text typed so far
+     * @param limit the maximum number of suggestions
+     * @return ranked suggestions carrying id, full name and email
+     */
+    @Transactional(readOnly = true)
+    public List<UserSearchIndex.Entry> suggestUsers(String prefix, int limit) {
+        List<UserSearchIndex.Entry> suggestions = new ArrayList<>(userSearchIndex.searchNames(prefix, limit));
+        if (suggestions.size() < limit) {
+            for (UserSearchIndex.Entry entry : userSearchIndex.searchEmails(prefix, limit)) {
+                if (suggestions.size() >= limit) {
+                    break;
+                }
+                if (suggestions.stream().noneMatch(s -> s.getId().equals(entry.getId()))) {
+                    suggestions.add(entry);
+                }
+            }
+        }
+        return suggestions;
     }
     
     /**
      * Find users by email domain
+     * Exact match on the indexed, normalized email_domain column ("mail.com" does not match "gmail.com")
      * @param domain the email domain (e.g., "gmail.com")
      * @return list of users with that domain
      */
     @Transactional(readOnly = true)
     public List<User> getUsersByEmailDomain(String domain) {
-        return userRepository.findByEmailContaining(domain);
+        return userRepository.findByEmailDomain(normalizeDomain(domain));
+    }
+    
+    /**
+     * Count users by email domain
+     * Reads the maintained per-domain counter, a single-row primary key lookup
+     * @param domain the email domain (e.g., "gmail.com")
+     * @return number of users with that domain
+     */
+    @Transactional(readOnly = true)
+    public long countUsersByEmailDomain(String domain) {
+        return emailDomainCounterService.getCount(normalizeDomain(domain));
+    }
+    
+    private static String normalizeDomain(String domain) {
+        String normalized = domain.trim().toLowerCase(Locale.ROOT);
+        return normalized.startsWith("@") ? normalized.substring(1) : normalized;
+    }
+    
+    /**
+     * Load the users for ranked index matches, keeping the ranking
+     * Users that no longer exist or no longer match (stale index entries) are dropped
+     */
+    private List<User> loadRanked(List<UserSearchIndex.Entry> matches, Predicate<User> stillMatches) {
+        if (matches.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = matches.stream().map(UserSearchIndex.Entry::getId).collect(Collectors.toList());
+        Map<Long, User> usersById = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = usersById.get(id);
+            if (user != null && stillMatches.test(user)) {
+                users.add(user);
+            }
+        }
+        return users;
     }
     
     /**
@@ -214,6 +508,57 @@ public class UserService {
         return userRepository.count();
     }
     
+    /**
+     * Get user counts by role and status plus recent sign-ups
+     * Computed by the database in one aggregate query instead of loading every user,
+     * then cached until the users table changes or app.cache.stats.ttl-seconds pass
+     * @return the aggregated user statistics (shared, must not be modified)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UserStatistics getUserStatistics() {
+        return getStampedUserStatistics().getValue();
+    }
+    
+    /**
+     * Get the cached user statistics with a stamp identifying them, for use as an ETag
+     * A cache hit does not touch the database. The 7/30-day windows end at the start of the current
+     * minute rather than now, so the counts depend only on the users table and that minute; the stamp
+     * is the change stamp plus the minute, and polls within a minute without user changes match it.
+     * The change stamp is process-local: nodes converge only through user-events on Kafka, so behind a
+     * load balancer a client alternating between nodes sees different stamps and refetches.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Stamped<UserStatistics> getStampedUserStatistics() {
+        // Read the change stamp first: a write committing during the query then invalidates the entry
+        String changeStamp = userChangeStamp.current();
+        long now = clock.getAsLong();
+        long windowEnd = now - Math.floorMod(now, STATISTICS_WINDOW_STEP_MILLIS);
+        String stamp = changeStamp + "." + Long.toString(windowEnd / STATISTICS_WINDOW_STEP_MILLIS, 36);
+        CachedStatistics cached = cachedStatistics;
+        if (cached != null && cached.statistics().getStamp().equals(stamp)
+                && now - cached.computedAt() < statisticsTtlSeconds * 1000) {
+            return cached.statistics();
+        }
+        
+        Stamped<UserStatistics> statistics = new Stamped<>(computeUserStatistics(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(windowEnd), ZoneId.systemDefault())), stamp);
+        cachedStatistics = new CachedStatistics(now, statistics);
+        return statistics;
+    }
+    
+    private UserStatistics computeUserStatistics(LocalDateTime windowEnd) {
+        UserStatistics statistics = new UserStatistics();
+        
+        for (UserRepository.RoleStatusCount group : userRepository.aggregateUserStats(windowEnd.minusDays(7), windowEnd.minusDays(30))) {
+            statistics.addGroup(group.getRole(),
+                    Boolean.TRUE.equals(group.getEnabled()),
+                    group.getTotal(),
+                    group.getCreatedLast7Days() != null ? group.getCreatedLast7Days() : 0L,
+                    group.getCreatedLast30Days() != null ? group.getCreatedLast30Days() : 0L);
+        }
+        return statistics;
+    }
+    
     /**
      * Check if user exists by email
      * @param email the email to check
@@ -228,7 +573,7 @@ public class UserService {
     
     /**
      * Check if the authenticated user owns the resource
-     * Used for method-level security
+     * Database-backed fallback for AuthorizationEvaluator when the principal cannot answer
      */
     @Transactional(readOnly = true)
     public boolean isOwner(Long userId, String authenticatedEmail) {
@@ -242,7 +587,7 @@ public class UserService {
     
     /**
      * Check if user can access reports (for managers)
-     * Custom authorization logic
+     * Database-backed fallback for AuthorizationEvaluator when the principal is stale
      */
     @Transactional(readOnly = true)
     public boolean canAccessReports(String email) {
@@ -266,35 +611,120 @@ public class UserService {
      * Enable/disable user account
      */
     public void setUserEnabled(Long userId, boolean enabled) {
-        User user = getUserById(userId);
+        User user = loadUser(userId);
         user.setEnabled(enabled);
-        userRepository.save(user);
+        saveAndPublishUpdate(user, enabled ? "enabled" : "disabled");
     }
     
     /**
      * Lock/unlock user account
      */
     public void setUserLocked(Long userId, boolean locked) {
-        User user = getUserById(userId);
+        User user = loadUser(userId);
         user.setAccountNonLocked(!locked);
-        userRepository.save(user);
+        if (!locked) {
+            user.setFailedLoginAttempts(0);
+            loginAttemptTracker.forget(user.getEmail());
+        }
+        saveAndPublishUpdate(user, locked ? "locked" : "unlocked");
     }
     
     /**
      * Change user password
      */
     public void changePassword(Long userId, String newPassword) {
-        User user = getUserById(userId);
+        User user = loadUser(userId);
         user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        saveAndPublishUpdate(user, "password changed");
     }
     
     /**
      * Change user role (admin only operation)
      */
     public void changeUserRole(Long userId, UserRole newRole) {
-        User user = getUserById(userId);
+        User user = loadUser(userId);
         user.setRole(newRole);
+        saveAndPublishUpdate(user, "role changed to " + newRole);
+    }
+    
+    /**
+     * Enable/disable all selected user accounts with a single UPDATE
+     * @return the number of users changed
+     * @throws IllegalArgumentException if the selection is empty
+     */
+    public int bulkSetUserEnabled(UserSelection selection, boolean enabled) {
+        requireSelection(selection);
+        int updated = userRepository.updateEnabled(selection, enabled);
+        publishBulkUpdate(selection, updated, enabled ? "enabled" : "disabled");
+        return updated;
+    }
+    
+    /**
+     * Lock/unlock all selected user accounts with a single UPDATE
+     * Unlocked accounts drop their in-memory failed-login counters on their next login, on every node
+     * ({@link LoginAttemptTracker#isLocked}).
+     * @return the number of users changed
+     * @throws IllegalArgumentException if the selection is empty
+     */
+    public int bulkSetUserLocked(UserSelection selection, boolean locked) {
+        requireSelection(selection);
+        int updated = userRepository.updateLocked(selection, locked);
+        publishBulkUpdate(selection, updated, locked ? "locked" : "unlocked");
+        return updated;
+    }
+    
+    /**
+     * Change the role of all selected users with a single UPDATE (admin only operation)
+     * @return the number of users changed
+     * @throws IllegalArgumentException if the selection is empty
+     */
+    public int bulkChangeUserRole(UserSelection selection, UserRole newRole) {
+        requireSelection(selection);
+        int updated = userRepository.updateRole(selection, newRole);
+        publishBulkUpdate(selection, updated, "role changed to " + newRole);
+        return updated;
+    }
+    
+    private static void requireSelection(UserSelection selection) {
+        if (selection == null || selection.isEmpty()) {
+            throw new IllegalArgumentException("Select users by ids or at least one filter");
+        }
+    }
+    
+    /**
+     * Evict the affected users and publish USERS_UPDATED for the whole operation
+     * A selection by IDs names them in the event, BULK_EVENT_IDS per event; a filter selection sends one
+     * event without IDs, and consumers drop every cached user.
+     */
+    private void publishBulkUpdate(UserSelection selection, int updated, String change) {
+        if (updated == 0) {
+            return;
+        }
+        // Bulk JPQL updates bypass the entity listener
+        userChangeStamp.changedOnCompletion();
+        String details = String.format("%d users %s (%s)", updated, change, selection.describe());
+        List<Long> ids = selection.getIds();
+        if (ids == null || ids.isEmpty()) {
+            userCache.evictAllOnCommit();
+            outboxService.publish(UserEvent.usersUpdated(List.of(), details));
+            return;
+        }
+        userCache.evictOnCommit(ids);
+        List<UserEvent> events = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_EVENT_IDS) {
+            events.add(UserEvent.usersUpdated(ids.subList(from, Math.min(from + BULK_EVENT_IDS, ids.size())), details));
+        }
+        outboxService.publishUserEvents(events);
+    }
+    
+    /**
+     * Save a modified user, evict it locally and publish USER_UPDATED so other nodes evict it too
+     */
+    private void saveAndPublishUpdate(User user, String change) {
         userRepository.save(user);
+        userCache.evictOnCommit(user.getId());
+        outboxService.publishUserEvent("USER_UPDATED", 
+                user.getId().toString(), 
+                String.format("User %s %s %s", user.getFirstName(), user.getLastName(), change));
     }
 }
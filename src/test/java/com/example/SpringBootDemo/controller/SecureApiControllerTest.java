@@ -0,0 +1,103 @@
+package com.example.SpringBootDemo.controller;
+
+import com.example.SpringBootDemo.entity.UserRole;
+import com.example.SpringBootDemo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the statistics and report endpoints of SecureApiController
+ * Runs through the security filter chain, against the users seeded by DataInitializer.
+ * Not transactional: the statistics cache follows committed changes only.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecureApiControllerTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = "ADMIN")
+    void getUserStats_Admin_MatchesRepositoryCounts() throws Exception {
+        long total = userRepository.count();
+        long disabled = userRepository.countByEnabled(false);
+
+        mockMvc.perform(get("/api/secure/admin/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.statistics.totalUsers", is((int) total)))
+                .andExpect(jsonPath("$.statistics.adminUsers", is((int) userRepository.countByRole(UserRole.ADMIN))))
+                .andExpect(jsonPath("$.statistics.managerUsers", is((int) userRepository.countByRole(UserRole.MANAGER))))
+                .andExpect(jsonPath("$.statistics.regularUsers", is((int) userRepository.countByRole(UserRole.USER))))
+                .andExpect(jsonPath("$.statistics.enabledUsers", is((int) (total - disabled))))
+                .andExpect(jsonPath("$.statistics.disabledUsers", is((int) disabled)))
+                .andExpect(jsonPath("$.statistics.createdLast30Days", is((int) total)))
+                .andExpect(jsonPath("$.requestedBy", is("admin@example.com")));
+    }
+
+    @Test
+    @WithMockUser(username = "manager@example.com", roles = "MANAGER")
+    void getUserStats_Manager_Allowed() throws Exception {
+        mockMvc.perform(get("/api/secure/admin/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statistics.totalUsers", is((int) userRepository.count())));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = "USER")
+    void getUserStats_User_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/secure/admin/stats"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getUserStats_Anonymous_RedirectedToLogin() throws Exception {
+        mockMvc.perform(get("/api/secure/admin/stats"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("**/login"));
+    }
+
+    @Test
+    @WithMockUser(username = "manager@example.com", roles = "MANAGER")
+    void getManagerReports_Manager_MatchesRepositoryCounts() throws Exception {
+        long total = userRepository.count();
+
+        mockMvc.perform(get("/api/secure/manager/reports"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reports.totalUsers", is((int) total)))
+                .andExpect(jsonPath("$.reports.activeUsers", is((int) userRepository.countByEnabled(true))))
+                .andExpect(jsonPath("$.generatedBy", is("manager@example.com")));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = "USER")
+    void getManagerReports_User_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/secure/manager/reports"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.SpringBootDemo.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip tests for the binary event serializers
+ */
+class EventSerializationTest {
+
+    @Test
+    void userEvent_RoundTripsWithQuotesAndUnicode() {
+        UserEvent event = UserEvent.of("USER_UPDATED", "42", "User \"O'Brien\" Zoë 🚀 updated\nwith \\ and ,");
+        Headers headers = new RecordHeaders();
+
+        byte[] data = new UserEventSerializer().serialize("user-events", headers, event);
+        UserEvent decoded = new UserEventDeserializer().deserialize("user-events", headers, data);
+
+        assertEquals(event, decoded);
+        assertNotNull(headers.lastHeader(EventCodec.SCHEMA_VERSION_HEADER));
+    }
+
+    @Test
+    void userEvent_IsSmallerThanTheJsonItReplaces() {
+        UserEvent event = UserEvent.of("USER_CREATED", "12345", "User John Doe created with email john.doe@example.com");
+        String json = String.format("{\"eventType\":\"%s\",\"userId\":\"%s\",\"userDetails\":\"%s\",\"timestamp\":\"%s\"}",
+                event.eventType(), event.userId(), event.userDetails(), "2024-01-01T12:00:00.123456789");
+
+        byte[] data = new UserEventSerializer().serialize("user-events", new RecordHeaders(), event);
+
+        assertTrue(data.length < json.getBytes(StandardCharsets.UTF_8).length,
+                () -> data.length + " bytes vs " + json.length());
+    }
+
+    @Test
+    void notificationEvent_RoundTripsNullFields() {
+        NotificationEvent event = NotificationEvent.of("john.doe@example.com", null, "");
+        Headers headers = new RecordHeaders();
+
+        byte[] data = new NotificationEventSerializer().serialize("notifications", headers, event);
+        NotificationEvent decoded = new NotificationEventDeserializer().deserialize("notifications", headers, data);
+
+        assertEquals(event, decoded);
+        assertNull(decoded.subject());
+        assertEquals("", decoded.content());
+    }
+
+    @Test
+    void deserialize_RejectsMissingOrUnknownSchemaVersion() {
+        byte[] data = new UserEventSerializer().serialize("user-events", UserEvent.of("USER_DELETED", "1", "gone"));
+        UserEventDeserializer deserializer = new UserEventDeserializer();
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("user-events", new RecordHeaders(), data));
+
+        Headers future = new RecordHeaders();
+        future.add(EventCodec.SCHEMA_VERSION_HEADER, new byte[]{99});
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("user-events", future, data));
+    }
+
+    @Test
+    void deserialize_RejectsTruncatedPayload() {
+        Headers headers = new RecordHeaders();
+        byte[] data = new UserEventSerializer().serialize("user-events", headers, UserEvent.of("USER_DELETED", "1", "gone"));
+        byte[] truncated = java.util.Arrays.copyOf(data, data.length - 2);
+
+        assertThrows(SerializationException.class,
+                () -> new UserEventDeserializer().deserialize("user-events", headers, truncated));
+    }
+}
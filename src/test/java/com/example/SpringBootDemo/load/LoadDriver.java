@@ -0,0 +1,303 @@
+package com.example.SpringBootDemo.load;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP load generator for the load-test profiles
+ *
+ * Closed loop ({@link #run}): each simulated client runs on its own virtual thread and sends the next
+ * request as soon as the previous one completes, cycling through the endpoints; requests finishing
+ * during the warm-up are not recorded.
+ *
+ * Open loop ({@link #runAtRate}): requests are started at a fixed rate, each on its own virtual thread,
+ * whatever the response times, and latency is measured from the time the request was due, so a stall
+ * shows up in the percentiles instead of silently lowering the rate. Requests due during the warm-up
+ * are not recorded.
+ *
+ * Latencies are kept per endpoint.
+ */
+final class LoadDriver {
+
+    private static final Pattern CSRF_INPUT = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    /**
+     * One endpoint to exercise; a non-null body is sent as JSON
+     */
+    record Endpoint(String name, String method, String path, String body) {
+
+        /**
+         * A GET endpoint
+         */
+        Endpoint(String name, String path) {
+            this(name, "GET", path, null);
+        }
+    }
+
+    /**
+     * An endpoint called through a logged-in session, with its share of an open-loop mix
+     */
+    record Target(LoadDriver session, Endpoint endpoint, int weight) {
+    }
+
+    /**
+     * Latency and error summary of one endpoint
+     */
+    record EndpointStats(String name, long requests, long errors, double p50Millis, double p95Millis,
+                         double p99Millis, double maxMillis) {
+    }
+
+    /**
+     * Result of one run
+     */
+    record Report(Duration measured, Map<String, EndpointStats> endpoints) {
+
+        long requests() {
+            return endpoints.values().stream().mapToLong(EndpointStats::requests).sum();
+        }
+
+        long errors() {
+            return endpoints.values().stream().mapToLong(EndpointStats::errors).sum();
+        }
+
+        double throughput() {
+            return requests() / (measured.toNanos() / 1e9);
+        }
+
+        String format(String title) {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(Locale.ROOT, "%n=== %s: %d requests, %.1f req/s, %d errors ===%n",
+                    title, requests(), throughput(), errors()));
+            out.append(String.format(Locale.ROOT, "%-28s %9s %7s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+            for (EndpointStats stats : endpoints.values()) {
+                out.append(String.format(Locale.ROOT, "%-28s %9d %7d %9.1f %9.1f %9.1f %9.1f%n",
+                        stats.name(), stats.requests(), stats.errors(), stats.p50Millis(),
+                        stats.p95Millis(), stats.p99Millis(), stats.maxMillis()));
+            }
+            return out.toString();
+        }
+    }
+
+    private final URI baseUri;
+    private final HttpClient client;
+
+    private LoadDriver(URI baseUri, HttpClient client) {
+        this.baseUri = baseUri;
+        this.client = client;
+    }
+
+    /**
+     * Log in through the form login and return a driver sharing that session
+     */
+    static LoadDriver login(int port, String email, String password) throws IOException, InterruptedException {
+        URI baseUri = URI.create("http://localhost:" + port);
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        String loginPage = client.send(HttpRequest.newBuilder(baseUri.resolve("/login")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher csrf = CSRF_INPUT.matcher(loginPage);
+        if (!csrf.find()) {
+            throw new IllegalStateException("No CSRF token on the login page");
+        }
+
+        String form = "email=" + encode(email) + "&password=" + encode(password) + "&_csrf=" + encode(csrf.group(1));
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("error")) {
+            throw new IllegalStateException("Login as " + email + " failed: " + response.statusCode() + " " + location);
+        }
+        return new LoadDriver(baseUri, client);
+    }
+
+    /**
+     * Run closed-loop clients against the endpoints
+     * @param clients the number of concurrent clients
+     * @param warmUp time to run before recording
+     * @param duration time to record
+     */
+    Report run(List<Endpoint> endpoints, int clients, Duration warmUp, Duration duration) throws InterruptedException {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> recorders.put(endpoint.name(), new Recorder()));
+
+        long start = System.nanoTime();
+        long recordFrom = start + warmUp.toNanos();
+        long stopAt = recordFrom + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                executor.submit(() -> {
+                    for (int i = offset; System.nanoTime() < stopAt; i++) {
+                        Endpoint endpoint = endpoints.get(i % endpoints.size());
+                        long sent = System.nanoTime();
+                        boolean ok = send(endpoint);
+                        long finished = System.nanoTime();
+                        if (finished >= recordFrom && finished < stopAt) {
+                            recorders.get(endpoint.name()).record(finished - sent, ok);
+                        }
+                    }
+                });
+            }
+        }
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) -> stats.put(name, recorder.stats(name)));
+        return new Report(duration, stats);
+    }
+
+    /**
+     * Start requests to the targets at a fixed rate, spread over them by weight
+     * Errors include requests not started because maxInFlight requests were already outstanding.
+     * @param ratePerSecond requests started per second
+     * @param maxInFlight the most requests outstanding at once
+     * @param warmUp time to run before recording
+     * @param duration time to record
+     */
+    static Report runAtRate(List<Target> targets, double ratePerSecond, int maxInFlight,
+                            Duration warmUp, Duration duration) {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        List<Target> schedule = new ArrayList<>();
+        for (Target target : targets) {
+            if (target.weight() > 0) {
+                recorders.put(target.endpoint().name(), new Recorder());
+                schedule.addAll(Collections.nCopies(target.weight(), target));
+            }
+        }
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("No target has a positive weight");
+        }
+        // Interleave the endpoints; a fixed seed keeps runs comparable
+        Collections.shuffle(schedule, new Random(42));
+
+        long intervalNanos = (long) (1e9 / ratePerSecond);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        long recordFrom = start + warmUp.toNanos();
+        long stopAt = recordFrom + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long due = start + i * intervalNanos;
+                if (due >= stopAt) {
+                    break;
+                }
+                LockSupport.parkNanos(due - System.nanoTime());
+
+                Target target = schedule.get((int) (i % schedule.size()));
+                Recorder recorder = due >= recordFrom ? recorders.get(target.endpoint().name()) : null;
+                if (!inFlight.tryAcquire()) {
+                    if (recorder != null) {
+                        recorder.dropped();
+                    }
+                    continue;
+                }
+                executor.submit(() -> {
+                    try {
+                        boolean ok = target.session().send(target.endpoint());
+                        if (recorder != null) {
+                            recorder.record(System.nanoTime() - due, ok);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) -> stats.put(name, recorder.stats(name)));
+        return new Report(duration, stats);
+    }
+
+    private boolean send(Endpoint endpoint) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(endpoint.path()))
+                    .timeout(Duration.ofSeconds(30));
+            if (endpoint.body() != null) {
+                request.header("Content-Type", "application/json")
+                        .method(endpoint.method(), HttpRequest.BodyPublishers.ofString(endpoint.body()));
+            } else {
+                request.method(endpoint.method(), HttpRequest.BodyPublishers.noBody());
+            }
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Latency samples of one endpoint
+     */
+    private static final class Recorder {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        synchronized void record(long nanos, boolean ok) {
+            latencies.add(nanos);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void dropped() {
+            dropped.incrementAndGet();
+        }
+
+        synchronized EndpointStats stats(String name) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return new EndpointStats(name, sorted.length + dropped.get(), errors.get() + dropped.get(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.SpringBootDemo.load;
+
+import com.example.SpringBootDemo.config.KafkaConfig;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-loop load over a mix of the user, secure and Kafka endpoints, with no external services
+ *
+ * The application starts on a random port against an embedded Kafka broker and the in-memory database.
+ * Requests are sent at a target rate through sessions of the accounts seeded by DataInitializer (admin,
+ * manager and user), each endpoint as a role allowed to call it; the report lists p50/p95/p99/max
+ * latency and errors per endpoint.
+ *
+ * Run with ./gradlew loadTest and tune with:
+ * -Dload.rate (requests per second), -Dload.max-in-flight, -Dload.warmup-seconds,
+ * -Dload.duration-seconds and -Dload.mix, a list of endpoint weights such as
+ * "users-page=10,secure-me=5,kafka-user-event=0" (unlisted endpoints keep their default weight).
+ */
+@Tag("load")
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = KafkaConfig.TOPIC_PARTITIONS,
+        topics = {KafkaConfig.USER_EVENTS_TOPIC, KafkaConfig.NOTIFICATIONS_TOPIC},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Per-statement logging would dominate the measurement
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "logging.level.com.example.SpringBootDemo=INFO"})
+class MixedWorkloadLoadTest {
+
+    private enum Account {
+        ADMIN("admin@example.com", "admin123"),
+        MANAGER("manager@example.com", "manager123"),
+        USER("user@example.com", "user123");
+
+        private final String email;
+        private final String password;
+
+        Account(String email, String password) {
+            this.email = email;
+            this.password = password;
+        }
+    }
+
+    private record MixEntry(String key, Account account, LoadDriver.Endpoint endpoint, int defaultWeight) {
+    }
+
+    private static final List<MixEntry> MIX = List.of(
+            new MixEntry("users-page", Account.ADMIN,
+                    new LoadDriver.Endpoint("GET /api/users", "/api/users?size=20"), 4),
+            new MixEntry("users-search", Account.USER,
+                    new LoadDriver.Endpoint("GET /api/users/search", "/api/users/search?name=user"), 2),
+            new MixEntry("users-stats", Account.MANAGER,
+                    new LoadDriver.Endpoint("GET /api/users/stats", "/api/users/stats"), 2),
+            new MixEntry("secure-me", Account.USER,
+                    new LoadDriver.Endpoint("GET /api/secure/me", "/api/secure/me"), 4),
+            new MixEntry("secure-admin-stats", Account.ADMIN,
+                    new LoadDriver.Endpoint("GET /api/secure/admin/stats", "/api/secure/admin/stats"), 1),
+            new MixEntry("secure-manager-reports", Account.MANAGER,
+                    new LoadDriver.Endpoint("GET /api/secure/manager/reports", "/api/secure/manager/reports"), 1),
+            new MixEntry("kafka-user-event", Account.MANAGER,
+                    new LoadDriver.Endpoint("POST /api/kafka/user-event", "POST", "/api/kafka/user-event",
+                            "{\"eventType\":\"USER_ACTION\",\"userId\":\"42\",\"userDetails\":\"load test\"}"), 1),
+            new MixEntry("kafka-notification", Account.ADMIN,
+                    new LoadDriver.Endpoint("POST /api/kafka/notification", "POST", "/api/kafka/notification",
+                            "{\"recipient\":\"user@example.com\",\"subject\":\"Load\",\"content\":\"load test\"}"), 1),
+            new MixEntry("kafka-consumed", Account.ADMIN,
+                    new LoadDriver.Endpoint("GET /api/kafka/consumed/user-events",
+                            "/api/kafka/consumed/user-events?limit=20"), 1));
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void mixedLoadAtTargetRate() throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+        int maxInFlight = Integer.getInteger("load.max-in-flight", 1000);
+        Duration warmUp = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 30));
+        Map<String, Integer> weights = parseWeights(System.getProperty("load.mix", ""));
+
+        Map<Account, LoadDriver> sessions = new LinkedHashMap<>();
+        for (Account account : Account.values()) {
+            sessions.put(account, LoadDriver.login(port, account.email, account.password));
+        }
+        List<LoadDriver.Target> targets = new ArrayList<>();
+        for (MixEntry entry : MIX) {
+            targets.add(new LoadDriver.Target(sessions.get(entry.account()), entry.endpoint(),
+                    weights.getOrDefault(entry.key(), entry.defaultWeight())));
+        }
+
+        LoadDriver.Report report = LoadDriver.runAtRate(targets, rate, maxInFlight, warmUp, duration);
+
+        System.out.println(report.format(String.format("Mixed workload (target %.0f req/s)", rate)));
+        assertTrue(report.requests() > 0, "no requests completed");
+        assertTrue(report.errors() <= report.requests() / 100, "more than 1% of requests failed");
+    }
+
+    private static Map<String, Integer> parseWeights(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String item : mix.split(",")) {
+            if (item.isBlank()) {
+                continue;
+            }
+            String[] parts = item.split("=", 2);
+            String key = parts[0].trim();
+            if (MIX.stream().noneMatch(entry -> entry.key().equals(key)) || parts.length != 2) {
+                throw new IllegalArgumentException("Unknown load.mix entry " + item + ", expected one of "
+                        + MIX.stream().map(MixEntry::key).toList() + " as key=weight");
+            }
+            weights.put(key, Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
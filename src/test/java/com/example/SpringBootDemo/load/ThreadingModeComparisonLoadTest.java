@@ -0,0 +1,59 @@
+package com.example.SpringBootDemo.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load profile comparing platform-thread and virtual-thread request execution
+ *
+ * Both variants start the application on a random port and run the same closed-loop load
+ * (list page, stats, current user) as the seeded admin; compare the printed reports.
+ * Run with ./gradlew loadTest; tune with -Dload.clients, -Dload.warmup-seconds and -Dload.duration-seconds.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Per-statement logging would dominate the measurement
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "logging.level.com.example.SpringBootDemo=INFO"})
+abstract class ThreadingModeComparisonLoadTest {
+
+    private static final List<LoadDriver.Endpoint> ENDPOINTS = List.of(
+            new LoadDriver.Endpoint("GET /api/users", "/api/users?size=20"),
+            new LoadDriver.Endpoint("GET /api/users/stats", "/api/users/stats"),
+            new LoadDriver.Endpoint("GET /api/secure/me", "/api/secure/me"));
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void closedLoopLoad() throws Exception {
+        int clients = Integer.getInteger("load.clients", 400);
+        Duration warmUp = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 20));
+
+        LoadDriver driver = LoadDriver.login(port, "admin@example.com", "admin123");
+        LoadDriver.Report report = driver.run(ENDPOINTS, clients, warmUp, duration);
+
+        System.out.println(report.format(getClass().getSimpleName() + " (" + clients + " clients)"));
+        assertTrue(report.requests() > 0, "no requests completed");
+        assertTrue(report.errors() <= report.requests() / 100, "more than 1% of requests failed");
+    }
+
+    @ActiveProfiles("test")
+    static class PlatformThreads extends ThreadingModeComparisonLoadTest {
+    }
+
+    @ActiveProfiles({"test", "virtual-threads"})
+    static class VirtualThreads extends ThreadingModeComparisonLoadTest {
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.SpringBootDemo.monitoring;
+
+import com.example.SpringBootDemo.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SqlDiagnosticsDataSourceWrapper: the application's pool is wrapped, statements reach
+ * SqlDiagnostics, and unwrap() and close() still reach the pool
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SqlDiagnosticsDataSourceWrapperTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SqlDiagnostics sqlDiagnostics;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void applicationDataSource_IsWrappedAndUnwrapsToHikari() throws Exception {
+        assertTrue(Proxy.isProxyClass(dataSource.getClass()));
+        assertTrue(dataSource.isWrapperFor(HikariDataSource.class));
+        assertInstanceOf(HikariDataSource.class, dataSource.unwrap(HikariDataSource.class));
+    }
+
+    @Test
+    void repositoryQueries_AreRecorded() {
+        long before = userCountExecutions();
+
+        userRepository.count();
+
+        assertEquals(before + 1, userCountExecutions());
+    }
+
+    @Test
+    void wrap_RecordsStatementsAndPassesUnwrapAndCloseToThePool() throws Exception {
+        SqlDiagnostics diagnostics = new SqlDiagnostics(new SimpleMeterRegistry(),
+                100, 0, 10, 100, 16);
+        SqlDiagnosticsDataSourceWrapper wrapper = new SqlDiagnosticsDataSourceWrapper(
+                new StaticListableBeanFactory(Map.of("sqlDiagnostics", diagnostics)).getBeanProvider(SqlDiagnostics.class));
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setJdbcUrl("jdbc:h2:mem:wrapper-test");
+        hikari.setUsername("sa");
+
+        DataSource wrapped = (DataSource) wrapper.postProcessAfterInitialization(hikari, "dataSource");
+        try (Connection connection = wrapped.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+            statement.executeQuery().close();
+        }
+
+        assertSame(hikari, wrapped.unwrap(HikariDataSource.class));
+        assertEquals("select 1", diagnostics.getTopStatements(1).get(0).getSql());
+        assertEquals(1, diagnostics.getTopStatements(1).get(0).getCount());
+
+        // The container closes the bean through Closeable on shutdown
+        ((Closeable) wrapped).close();
+        assertTrue(hikari.isClosed());
+    }
+
+    private long userCountExecutions() {
+        return sqlDiagnostics.getTopStatements(Integer.MAX_VALUE).stream()
+                .filter(stats -> {
+                    String sql = stats.getSql().toLowerCase(Locale.ROOT);
+                    return sql.startsWith("select count(") && sql.contains("from users");
+                })
+                .mapToLong(SqlDiagnostics.StatementStats::getCount)
+                .sum();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.SpringBootDemo.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SqlDiagnostics
+ */
+class SqlDiagnosticsTest {
+
+    private static final String SELECT_USER = "select u1_0.id,u1_0.email from users u1_0 where u1_0.id=?";
+    private static final String SELECT_COUNT = "select count(*) from users u1_0 where u1_0.enabled=?";
+    private static final String UPDATE_USER = "update users set last_login=? where id=?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlDiagnostics diagnostics = new SqlDiagnostics(meterRegistry, 100, 0, 3, 100, 16);
+
+    @Test
+    void endRequest_ReportsUninterruptedSelectRunAsNPlusOne() {
+        diagnostics.beginRequest("GET /api/users");
+        diagnostics.record(SELECT_COUNT, true, 1000);
+        for (int i = 0; i < 4; i++) {
+            diagnostics.record(SELECT_USER, true, 1000);
+        }
+        diagnostics.endRequest();
+
+        List<SqlDiagnostics.Finding> findings = diagnostics.getFindings();
+        assertEquals(1, findings.size());
+        assertEquals(SqlDiagnostics.N_PLUS_ONE, findings.get(0).kind());
+        assertEquals(4, findings.get(0).executions());
+        assertEquals("GET /api/users", findings.get(0).request());
+        assertEquals(1.0, meterRegistry.get("sql.findings").tag("kind", SqlDiagnostics.N_PLUS_ONE).counter().count());
+    }
+
+    @Test
+    void endRequest_ReportsInterleavedRepeatsAsRepeatedQuery() {
+        diagnostics.beginRequest("POST /api/users/import");
+        for (int i = 0; i < 3; i++) {
+            diagnostics.record(UPDATE_USER, true, 1000);
+            diagnostics.record(SELECT_COUNT, true, 1000);
+        }
+        diagnostics.endRequest();
+
+        assertEquals(2, diagnostics.getFindings().size());
+        assertTrue(diagnostics.getFindings().stream().allMatch(f -> f.kind().equals(SqlDiagnostics.REPEATED)));
+    }
+
+    @Test
+    void endRequest_IgnoresStatementsBelowThresholdAndOutsideRequests() {
+        diagnostics.record(SELECT_USER, true, 1000);
+        diagnostics.record(SELECT_USER, true, 1000);
+        diagnostics.record(SELECT_USER, true, 1000);
+
+        diagnostics.beginRequest("GET /api/users/1");
+        diagnostics.record(SELECT_USER, true, 1000);
+        diagnostics.record(SELECT_USER, true, 1000);
+        diagnostics.endRequest();
+
+        assertTrue(diagnostics.getFindings().isEmpty());
+        assertEquals(5, diagnostics.getTopStatements(10).get(0).getCount());
+    }
+
+    @Test
+    void record_KeepsSlowStatementsAndRanksByTotalTime() {
+        diagnostics.record(SELECT_COUNT, true, TimeUnit.MILLISECONDS.toNanos(250));
+        diagnostics.record(SELECT_USER, true, TimeUnit.MILLISECONDS.toNanos(5));
+        diagnostics.record(SELECT_USER, true, TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertEquals(1, diagnostics.getSlowStatements().size());
+        assertEquals(SELECT_COUNT, diagnostics.getSlowStatements().get(0).sql());
+        assertEquals("-", diagnostics.getSlowStatements().get(0).request());
+        assertEquals(SELECT_COUNT, diagnostics.getTopStatements(1).get(0).getSql());
+        assertEquals(250, diagnostics.getTopStatements(1).get(0).getMaxMillis());
+        assertEquals(1.0, meterRegistry.get("sql.statements.slow").counter().count());
+
+        diagnostics.reset();
+        assertTrue(diagnostics.getTopStatements(10).isEmpty());
+        assertTrue(diagnostics.getSlowStatements().isEmpty());
+    }
+
+    @Test
+    void record_MasksLiteralsOfPlainStatements() {
+        diagnostics.record("select * from users where email='john.doe@example.com' and id=42", false, 1000);
+
+        assertEquals("select * from users where email=? and id=?", diagnostics.getTopStatements(1).get(0).getSql());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.SpringBootDemo.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for VirtualThreadPinningMonitor
+ */
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void record_AggregatesByInnermostApplicationFrame() {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, 20, 16, 8);
+        List<String> stack = List.of(
+                "java.lang.VirtualThread.parkOnCarrierThread:677",
+                "org.h2.engine.SessionLocal.lock:120",
+                "com.example.SpringBootDemo.service.UserService.createUser:108",
+                "com.example.SpringBootDemo.controller.UserController.createUser:149");
+
+        monitor.record(Instant.now(), "tomcat-handler-1", Duration.ofMillis(30), stack);
+        monitor.record(Instant.now(), "tomcat-handler-2", Duration.ofMillis(50), stack);
+        monitor.record(Instant.now(), "kafka-worker-1", Duration.ofMillis(25), List.of("java.lang.Object.wait0:-1"));
+
+        assertEquals(3, monitor.getTotalPinned());
+        VirtualThreadPinningMonitor.PinningSite worst = monitor.getSites().get(0);
+        assertEquals("com.example.SpringBootDemo.service.UserService.createUser:108", worst.getSite());
+        assertEquals(2, worst.getCount());
+        assertEquals(80, worst.getTotalMillis());
+        assertEquals(50, worst.getMaxMillis());
+        assertEquals(stack, worst.getStack());
+        assertEquals("java.lang.Object.wait0:-1", monitor.getSites().get(1).getSite());
+        assertEquals(3, monitor.getRecentEvents().size());
+        assertEquals(3.0, meterRegistry.get("jvm.threads.virtual.pinned").counter().count());
+
+        monitor.reset();
+        assertEquals(0, monitor.getTotalPinned());
+        assertTrue(monitor.getRecentEvents().isEmpty());
+    }
+
+    @Test
+    void start_ReportsVirtualThreadBlockedInsideSynchronized() throws Exception {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, 10, 16, 8);
+        monitor.start();
+        try {
+            Object lock = new Object();
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    sleep(100);
+                }
+            }).join();
+
+            // Streamed events arrive after the next JFR flush (about once a second)
+            long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+            while (monitor.getTotalPinned() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+
+            assertEquals(1, monitor.getTotalPinned());
+            assertTrue(monitor.getSites().get(0).getSite().startsWith(VirtualThreadPinningMonitorTest.class.getName()),
+                    monitor.getSites().get(0).getSite());
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
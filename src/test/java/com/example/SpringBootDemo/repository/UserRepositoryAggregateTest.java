@@ -0,0 +1,91 @@
+package com.example.SpringBootDemo.repository;
+
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.entity.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the aggregate statistics query of UserRepository
+ * Seeds users with known roles, status and sign-up dates and checks every (role, enabled) group
+ */
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class UserRepositoryAggregateTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now();
+        userRepository.deleteAll();
+
+        saveUser("ann.admin@example.com", UserRole.ADMIN, true, 2);
+        saveUser("ben.manager@example.com", UserRole.MANAGER, true, 10);
+        saveUser("cat.user@example.com", UserRole.USER, true, 1);
+        saveUser("dan.user@example.com", UserRole.USER, false, 20);
+        saveUser("eve.user@example.com", UserRole.USER, false, 40);
+    }
+
+    /**
+     * Save a user and backdate its sign-up (created_at is set on insert, so it is rewritten afterwards)
+     */
+    private void saveUser(String email, UserRole role, boolean enabled, int daysAgo) {
+        User user = new User("Test", "User", email, "1234567890");
+        user.setRole(role);
+        user.setEnabled(enabled);
+        user = userRepository.saveAndFlush(user);
+        jdbcTemplate.update("UPDATE users SET created_at = ? WHERE id = ?", now.minusDays(daysAgo), user.getId());
+    }
+
+    @Test
+    void aggregateUserStats_CountsEachRoleAndStatusGroup() {
+        Map<String, UserRepository.RoleStatusCount> groups = userRepository
+                .aggregateUserStats(now.minusDays(7), now.minusDays(30)).stream()
+                .collect(Collectors.toMap(group -> group.getRole() + "/" + group.getEnabled(), group -> group));
+
+        assertEquals(4, groups.size());
+        assertGroup(groups.get("ADMIN/true"), 1, 1, 1);
+        assertGroup(groups.get("MANAGER/true"), 1, 0, 1);
+        assertGroup(groups.get("USER/true"), 1, 1, 1);
+        assertGroup(groups.get("USER/false"), 2, 0, 1);
+        assertNull(groups.get("MANAGER/false"));
+    }
+
+    @Test
+    void aggregateUserStats_NoUsers_ReturnsNoGroups() {
+        userRepository.deleteAll();
+        userRepository.flush();
+
+        List<UserRepository.RoleStatusCount> groups = userRepository.aggregateUserStats(now.minusDays(7), now.minusDays(30));
+
+        assertTrue(groups.isEmpty());
+    }
+
+    private static void assertGroup(UserRepository.RoleStatusCount group, long total,
+                                    long createdLast7Days, long createdLast30Days) {
+        assertNotNull(group);
+        assertEquals(total, group.getTotal());
+        assertEquals(createdLast7Days, group.getCreatedLast7Days());
+        assertEquals(createdLast30Days, group.getCreatedLast30Days());
+    }
+}
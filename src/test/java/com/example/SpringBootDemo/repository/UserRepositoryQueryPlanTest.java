@@ -0,0 +1,197 @@
+package com.example.SpringBootDemo.repository;
+
+import com.example.SpringBootDemo.dto.UserSelection;
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.entity.UserRole;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression tests for UserRepository
+ * Runs every repository query, captures the SQL Hibernate generates and asks H2 to EXPLAIN it.
+ * A plan must look rows up through an index condition: a full table scan, or a walk over a whole
+ * index with no condition, fails the test, so a new query or a dropped index is caught early.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.SpringBootDemo.repository.UserRepositoryQueryPlanTest$CapturingStatementInspector")
+@ActiveProfiles("test")
+class UserRepositoryQueryPlanTest {
+
+    /**
+     * Queries that cannot be served by a B-tree index, with the reason
+     */
+    private static final Map<String, String> FULL_SCAN_ALLOWED = Map.of(
+            "findByEmailContaining", "leading-wildcard LIKE",
+            "findByFullNameContaining", "leading-wildcard LIKE on a concatenated expression");
+
+    /**
+     * Queries that read an index in order without a condition, with the reason that is bounded or intended
+     */
+    private static final Map<String, String> INDEX_WALK_ALLOWED = Map.of(
+            "streamAllByOrderByIdAsc", "streams every user in primary key order by design",
+            "aggregateUserStats", "aggregates every user, grouped along idx_users_role_enabled",
+            "findByCreatedAtNotNullOrderByCreatedAtAscIdAsc", "first page along idx_users_created_at_id, stopped by the LIMIT");
+
+    /**
+     * H2 writes the access path as a comment; an index lookup names the index and its condition,
+     * e.g. "PUBLIC.IDX_USERS_EMAIL_DOMAIN: EMAIL_DOMAIN = ?1", where a whole-index walk names only the index
+     */
+    private static final Pattern INDEX_CONDITION = Pattern.compile("/\\*\\s*PUBLIC\\.\\w+:\\s");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * One invocation per repository query method, keyed by method name
+     */
+    private static Map<String, Consumer<UserRepository>> queryCases() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Consumer<UserRepository>> cases = new LinkedHashMap<>();
+        cases.put("findByEmail", repo -> repo.findByEmail("john.doe@example.com"));
+        cases.put("existsByEmail", repo -> repo.existsByEmail("john.doe@example.com"));
+        cases.put("findExistingEmails", repo -> repo.findExistingEmails(List.of("john.doe@example.com", "nobody@example.com")));
+        cases.put("findByFirstNameIgnoreCase", repo -> repo.findByFirstNameIgnoreCase("John"));
+        cases.put("findByLastNameIgnoreCase", repo -> repo.findByLastNameIgnoreCase("Doe"));
+        cases.put("findByFirstNameAndLastName", repo -> repo.findByFirstNameAndLastName("John", "Doe"));
+        cases.put("findByEmailDomain", repo -> repo.findByEmailDomain("example.com"));
+        cases.put("countByEmailDomain", repo -> repo.countByEmailDomain("example.com"));
+        cases.put("findByRole", repo -> repo.findByRole(UserRole.ADMIN));
+        cases.put("findUsersByRole", repo -> repo.findUsersByRole(UserRole.ADMIN));
+        cases.put("countByRole", repo -> repo.countByRole(UserRole.ADMIN));
+        cases.put("findByEnabled", repo -> repo.findByEnabled(false));
+        cases.put("countByEnabled", repo -> repo.countByEnabled(false));
+        cases.put("findByRoleAndEnabled", repo -> repo.findByRoleAndEnabled(UserRole.MANAGER, true));
+        cases.put("findByFailedLoginAttemptsGreaterThan", repo -> repo.findByFailedLoginAttemptsGreaterThan(3));
+        cases.put("findByAccountNonLocked", repo -> repo.findByAccountNonLocked(false));
+        cases.put("updateLoginState", repo -> repo.updateLoginState("nobody@example.com", true, 0));
+        cases.put("updateLoginStateById", repo -> repo.updateLoginStateById(-1L, true, 0));
+        cases.put("updateFailedLoginAttempts", repo -> repo.updateFailedLoginAttempts("nobody@example.com", 0));
+        cases.put("updateEnabled", repo -> repo.updateEnabled(UserSelection.ofIds(List.of(-1L)), true));
+        cases.put("updateLocked", repo -> repo.updateLocked(domainSelection("nobody.example"), false));
+        cases.put("updateRole", repo -> repo.updateRole(createdSelection(now.plusDays(1), now.plusDays(2)), UserRole.USER));
+        cases.put("findUsersCreatedInLastDays", repo -> repo.findUsersCreatedInLastDays(7));
+        cases.put("findUsersWithRecentLogin", repo -> repo.findUsersWithRecentLogin(7));
+        cases.put("findByIdGreaterThanOrderByIdAsc", repo -> repo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(50)));
+        cases.put("findByCreatedAtNotNullOrderByCreatedAtAscIdAsc",
+                repo -> repo.findByCreatedAtNotNullOrderByCreatedAtAscIdAsc(Limit.of(50)));
+        cases.put("findPageAfterCreatedAt", repo -> repo.findPageAfterCreatedAt(now.minusDays(1), 1L, Limit.of(50)));
+        cases.put("streamAllByOrderByIdAsc", repo -> {
+            try (Stream<User> users = repo.streamAllByOrderByIdAsc()) {
+                users.findFirst();
+            }
+        });
+        cases.put("aggregateUserStats", repo -> repo.aggregateUserStats(now.minusDays(7), now.minusDays(30)));
+        return cases;
+    }
+
+    private static UserSelection domainSelection(String domain) {
+        UserSelection selection = new UserSelection();
+        selection.setEmailDomain(domain);
+        return selection;
+    }
+
+    private static UserSelection createdSelection(LocalDateTime after, LocalDateTime before) {
+        UserSelection selection = new UserSelection();
+        selection.setCreatedAfter(after);
+        selection.setCreatedBefore(before);
+        return selection;
+    }
+
+    @Test
+    void everyRepositoryQueryMethodHasAPlanCase() {
+        // UserRepository's own queries plus those of its custom fragments
+        Set<String> declared = Stream.of(UserRepository.class, UserBulkUpdateRepository.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> !method.isDefault() && !method.isSynthetic()
+                        && !Modifier.isStatic(method.getModifiers()))
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        Set<String> covered = new TreeSet<>(queryCases().keySet());
+        covered.addAll(FULL_SCAN_ALLOWED.keySet());
+
+        assertThat(covered)
+                .as("every UserRepository query needs a case in queryCases() or an entry in FULL_SCAN_ALLOWED")
+                .containsAll(declared);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesDoNotScanTheUsersTable() {
+        return queryCases().entrySet().stream()
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> assertUsesIndex(entry.getKey(), entry.getValue())));
+    }
+
+    private void assertUsesIndex(String methodName, Consumer<UserRepository> invocation) {
+        CapturingStatementInspector.clear();
+        transactionTemplate.executeWithoutResult(status -> invocation.accept(userRepository));
+
+        List<String> statements = CapturingStatementInspector.captured();
+        assertThat(statements).as("SQL issued by %s", methodName).isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertThat(plan)
+                    .as("%s must not fall back to a full table scan%nSQL:  %s%nPlan: %s", methodName, sql, plan)
+                    .doesNotContainIgnoringCase("tableScan");
+            if (!INDEX_WALK_ALLOWED.containsKey(methodName)) {
+                assertThat(INDEX_CONDITION.matcher(plan).find())
+                        .as("%s must look rows up through an index condition, not walk a whole index%nSQL:  %s%nPlan: %s",
+                                methodName, sql, plan)
+                        .isTrue();
+            }
+        }
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        static void clear() {
+            STATEMENTS.clear();
+        }
+
+        static List<String> captured() {
+            return List.copyOf(STATEMENTS);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
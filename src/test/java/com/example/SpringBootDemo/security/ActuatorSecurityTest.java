@@ -0,0 +1,91 @@
+package com.example.SpringBootDemo.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Access rules for the actuator endpoints
+ * The test profile disables most endpoints, so an allowed request to one of them ends in 404.
+ * Prometheus is scraped with HTTP Basic as the metrics account (prometheus / scrape-secret here).
+ */
+@SpringBootTest(properties = "app.security.metrics.password=scrape-secret")
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    void health_IsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void diagnostics_Anonymous_RedirectedToLogin() throws Exception {
+        mockMvc.perform(get("/actuator/pinning"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("**/login"));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void diagnostics_NonAdmin_Forbidden() throws Exception {
+        mockMvc.perform(get("/actuator/pinning"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/sql"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/sql"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void diagnostics_Admin_Allowed() throws Exception {
+        mockMvc.perform(get("/actuator/pinning"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void prometheus_Anonymous_Unauthorized() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void prometheus_ApplicationUser_Forbidden() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheus_ScrapeAccount_Allowed() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isNotFound());
+    }
+}
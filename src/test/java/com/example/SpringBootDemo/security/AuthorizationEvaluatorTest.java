@@ -0,0 +1,70 @@
+package com.example.SpringBootDemo.security;
+
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.entity.UserRole;
+import com.example.SpringBootDemo.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuthorizationEvaluator
+ */
+class AuthorizationEvaluatorTest {
+
+    private UserService userService;
+    private AuthorizationEvaluator authz;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        authz = new AuthorizationEvaluator(userService, 300);
+    }
+
+    @Test
+    void isOwner_AnsweredFromPrincipal() {
+        Authentication auth = authenticate(7L, UserRole.USER);
+
+        assertTrue(authz.isOwner(auth, 7L));
+        assertFalse(authz.isOwner(auth, 8L));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void canAccessReports_AnsweredFromFreshPrincipal() {
+        assertTrue(authz.canAccessReports(authenticate(1L, UserRole.MANAGER)));
+        assertFalse(authz.canAccessReports(authenticate(2L, UserRole.USER)));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void canAccessReports_StalePrincipalFallsBackToDatabase() {
+        authz = new AuthorizationEvaluator(userService, -1);
+        when(userService.canAccessReports("user1@example.com")).thenReturn(false);
+
+        assertFalse(authz.canAccessReports(authenticate(1L, UserRole.MANAGER)));
+        verify(userService).canAccessReports("user1@example.com");
+    }
+
+    @Test
+    void isOwner_OtherPrincipalFallsBackToDatabase() {
+        Authentication auth = new TestingAuthenticationToken("someone@example.com", "secret", "ROLE_USER");
+        when(userService.isOwner(3L, "someone@example.com")).thenReturn(true);
+
+        assertTrue(authz.isOwner(auth, 3L));
+    }
+
+    private static Authentication authenticate(Long id, UserRole role) {
+        User user = new User("Test", "User", "user" + id + "@example.com", "1234567890");
+        user.setId(id);
+        user.setRole(role);
+        user.setPassword("encoded");
+        CustomUserDetails principal = new CustomUserDetails(user);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.SpringBootDemo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BoundedPasswordEncoder
+ */
+class BoundedPasswordEncoderTest {
+
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 2, 10);
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void encode_HashesWithConfiguredCost() {
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+    }
+
+    @Test
+    void encodeAll_HashesInOrderAndKeepsNulls() {
+        List<String> hashes = encoder.encodeAll(Arrays.asList("first", null, "second", "third"));
+
+        assertEquals(4, hashes.size());
+        assertTrue(encoder.matches("first", hashes.get(0)));
+        assertNull(hashes.get(1));
+        assertTrue(encoder.matches("second", hashes.get(2)));
+        assertTrue(encoder.matches("third", hashes.get(3)));
+    }
+
+    @Test
+    void upgradeEncoding_OnlyWhenCostIsLower() {
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+
+    @Test
+    void bindTo_TimesEncodeAndMatches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encoder.bindTo(registry);
+
+        String hash = encoder.encode("secret");
+        encoder.matches("secret", hash);
+        encoder.matches("wrong", hash);
+
+        assertEquals(1, registry.timer("password.hashing.duration", "operation", "encode").count());
+        assertEquals(2, registry.timer("password.hashing.duration", "operation", "matches").count());
+    }
+
+    @Test
+    void calibrateStrength_StaysWithinBounds() {
+        assertEquals(BoundedPasswordEncoder.MIN_CALIBRATED_STRENGTH, BoundedPasswordEncoder.calibrateStrength(1));
+        int strength = BoundedPasswordEncoder.calibrateStrength(250);
+        assertTrue(strength >= BoundedPasswordEncoder.MIN_CALIBRATED_STRENGTH
+                && strength <= BoundedPasswordEncoder.MAX_CALIBRATED_STRENGTH);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.SpringBootDemo.security;
+
+import com.example.SpringBootDemo.service.UserCache;
+import com.example.SpringBootDemo.service.UserChangeStamp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LastLoginRecorder
+ */
+class LastLoginRecorderTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private LastLoginRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new LastLoginRecorder(jdbcTemplate, new UserCache(100, 60, meterRegistry), new UserChangeStamp(), meterRegistry, 3);
+    }
+
+    @Test
+    void flush_WritesCoalescedLoginsInOneBatch() {
+        LocalDateTime first = LocalDateTime.of(2024, 1, 1, 9, 0);
+        LocalDateTime latest = first.plusMinutes(5);
+        recorder.record(1L, latest);
+        recorder.record(1L, first);
+        recorder.record(2L, first);
+
+        recorder.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        Object[] user1 = batch.getValue().stream().filter(row -> row[1].equals(1L)).findFirst().orElseThrow();
+        assertEquals(Timestamp.valueOf(latest), user1[0]);
+        assertEquals(0, recorder.getPendingCount());
+        assertEquals(1, meterRegistry.get("users.last_login.flush").timer().count());
+    }
+
+    @Test
+    void record_FlushesWhenBoundIsReached() {
+        recorder.record(1L, LocalDateTime.now());
+        recorder.record(2L, LocalDateTime.now());
+        verifyNoInteractions(jdbcTemplate);
+
+        recorder.record(3L, LocalDateTime.now());
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertEquals(0, recorder.getPendingCount());
+    }
+
+    @Test
+    void record_StaysBoundedWhileFlushIsInProgress() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            if (writing.getCount() > 0) {
+                writing.countDown();
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+            }
+            return new int[0];
+        });
+
+        // The third login fills the map and starts a flush that blocks in the database
+        Thread slowFlush = Thread.ofPlatform().start(() -> {
+            for (long id = 1; id <= 3; id++) {
+                recorder.record(id, LocalDateTime.now());
+            }
+        });
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+        // Fill the map again while that flush is still running, then one more login
+        for (long id = 4; id <= 6; id++) {
+            recorder.record(id, LocalDateTime.now());
+        }
+        Thread overflow = Thread.ofPlatform().start(() -> recorder.record(7L, LocalDateTime.now()));
+        overflow.join(200);
+
+        assertTrue(overflow.isAlive(), "a login finding the map full waits for the flush in progress");
+        assertEquals(3, recorder.getPendingCount());
+
+        release.countDown();
+        slowFlush.join();
+        overflow.join();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        assertEquals(1, recorder.getPendingCount());
+        assertEquals(0.0, meterRegistry.get("users.last_login.dropped").counter().count());
+    }
+
+    @Test
+    void record_DropsWhenMapStaysFull() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        recorder.record(1L, LocalDateTime.now());
+        recorder.record(2L, LocalDateTime.now());
+        recorder.record(3L, LocalDateTime.now());
+
+        recorder.record(4L, LocalDateTime.now());
+
+        assertEquals(3, recorder.getPendingCount());
+        assertEquals(1.0, meterRegistry.get("users.last_login.dropped").counter().count());
+    }
+
+    @Test
+    void flush_RequeuesBatchOnFailure() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        recorder.record(1L, LocalDateTime.now());
+
+        recorder.flush();
+
+        assertEquals(1, recorder.getPendingCount());
+    }
+}
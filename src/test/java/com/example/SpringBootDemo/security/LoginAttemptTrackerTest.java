@@ -0,0 +1,142 @@
+package com.example.SpringBootDemo.security;
+
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.repository.UserRepository;
+import com.example.SpringBootDemo.service.UserCache;
+import com.example.SpringBootDemo.service.UserChangeStamp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LoginAttemptTracker
+ */
+class LoginAttemptTrackerTest {
+
+    private static final String EMAIL = "john.doe@example.com";
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserRepository userRepository;
+    private LoginAttemptTracker tracker;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        user = new User("John", "Doe", EMAIL, "1234567890");
+        user.setId(7L);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(userRepository.updateLoginStateById(7L, false, 3)).thenAnswer(invocation -> {
+            user.setAccountNonLocked(false);
+            return 1;
+        });
+        UserCache userCache = new UserCache(100, 60, meterRegistry);
+        tracker = new LoginAttemptTracker(userRepository, userCache, new UserChangeStamp(), meterRegistry,
+                3, 60, 1000, now::get);
+    }
+
+    @Test
+    void recordFailure_LocksOnceAtThreshold() {
+        tracker.recordFailure(EMAIL);
+        tracker.recordFailure(EMAIL);
+        verifyNoInteractions(userRepository);
+        assertFalse(tracker.isLocked(user));
+
+        tracker.recordFailure(EMAIL);
+        tracker.recordFailure(EMAIL);
+
+        verify(userRepository, times(1)).updateLoginStateById(7L, false, 3);
+        assertEquals(4, tracker.getFailedAttempts(EMAIL));
+        assertTrue(tracker.isLocked(user));
+        verify(userRepository, times(1)).updateLoginStateById(anyLong(), anyBoolean(), anyInt());
+        assertEquals(1.0, meterRegistry.counter("users.login.lockouts").count());
+    }
+
+    @Test
+    void recordFailure_MixedCaseEmailsShareOneCounterAndStillLock() {
+        tracker.recordFailure("John.Doe@example.com");
+        tracker.recordFailure(EMAIL);
+        tracker.recordFailure("JOHN.DOE@EXAMPLE.COM");
+
+        // The threshold was reached with a spelling that matches no account
+        verify(userRepository, never()).updateLoginStateById(anyLong(), anyBoolean(), anyInt());
+        assertEquals(3, tracker.getFailedAttempts(EMAIL));
+
+        // The account itself is refused and the lock written when it is loaded for a login
+        assertTrue(tracker.isLocked(user));
+        assertTrue(tracker.isLocked(user));
+        verify(userRepository, times(1)).updateLoginStateById(7L, false, 3);
+    }
+
+    @Test
+    void recordFailure_WindowDecays() {
+        tracker.recordFailure(EMAIL);
+        tracker.recordFailure(EMAIL);
+
+        now.addAndGet(61_000L);
+
+        assertEquals(0, tracker.getFailedAttempts(EMAIL));
+        assertEquals(1, tracker.recordFailure(EMAIL));
+        verify(userRepository, never()).updateLoginStateById(anyLong(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    void unlock_ClearsCounterAndPersists() {
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure(EMAIL);
+        }
+
+        tracker.unlock(EMAIL);
+
+        assertEquals(0, tracker.getFailedAttempts(EMAIL));
+        assertFalse(tracker.isLocked(user));
+        verify(userRepository).updateLoginState(EMAIL, true, 0);
+    }
+
+    @Test
+    void isLocked_LockLiftedInDatabase_StartsOver() {
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure(EMAIL);
+        }
+        assertTrue(tracker.isLocked(user));
+
+        // Unlocked by a bulk unlock or on another node
+        user.setAccountNonLocked(true);
+
+        assertFalse(tracker.isLocked(user));
+        assertEquals(0, tracker.getFailedAttempts(EMAIL));
+        assertEquals(1, tracker.recordFailure(EMAIL));
+    }
+
+    @Test
+    void recordFailure_ConcurrentFailuresAreAllCounted() throws InterruptedException {
+        tracker = new LoginAttemptTracker(userRepository, new UserCache(100, 60, meterRegistry),
+                new UserChangeStamp(), meterRegistry, 1000, 60, 1000, now::get);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 100; i++) {
+                    tracker.recordFailure(EMAIL);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(800, tracker.getFailedAttempts(EMAIL));
+        verify(userRepository, never()).updateLoginStateById(anyLong(), anyBoolean(), anyInt());
+    }
+}
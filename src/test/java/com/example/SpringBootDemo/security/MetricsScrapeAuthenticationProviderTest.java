@@ -0,0 +1,46 @@
+package com.example.SpringBootDemo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MetricsScrapeAuthenticationProvider
+ */
+class MetricsScrapeAuthenticationProviderTest {
+
+    @Test
+    void authenticate_MatchingCredentials_GrantsMetricsRole() {
+        MetricsScrapeAuthenticationProvider provider = new MetricsScrapeAuthenticationProvider("prometheus", "scrape-secret");
+
+        Authentication result = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("prometheus", "scrape-secret"));
+
+        assertTrue(result.isAuthenticated());
+        assertEquals("prometheus", result.getName());
+        assertEquals(1, result.getAuthorities().size());
+        assertEquals("ROLE_METRICS", result.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElseThrow());
+    }
+
+    @Test
+    void authenticate_WrongPasswordOrUsername_Rejected() {
+        MetricsScrapeAuthenticationProvider provider = new MetricsScrapeAuthenticationProvider("prometheus", "scrape-secret");
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("prometheus", "wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("admin", "scrape-secret")));
+    }
+
+    @Test
+    void authenticate_NoPasswordConfigured_RejectsEveryScrape() {
+        MetricsScrapeAuthenticationProvider provider = new MetricsScrapeAuthenticationProvider("prometheus", "");
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("prometheus", "")));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the per-domain user counters
+ */
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class EmailDomainCounterServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmailDomainCounterService emailDomainCounterService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void counters_FollowCreateEmailChangeAndDelete() {
+        long before = count("counted.example");
+
+        User user = userService.createUser(new User("Count", "Me", "count.me@Counted.Example", "1234567890"));
+        assertEquals(before + 1, count("counted.example"));
+
+        userService.updateUser(user.getId(), new User("Count", "Me", "count.me@moved.example", "1234567890"));
+        assertEquals(before, count("counted.example"));
+        assertEquals(1, count("moved.example"));
+
+        userService.deleteUser(user.getId());
+        assertEquals(0, count("moved.example"));
+    }
+
+    @Test
+    void initialize_LeavesExistingCountersAlone() {
+        emailDomainCounterService.userAdded("not-in-users.example");
+
+        emailDomainCounterService.initialize();
+
+        assertEquals(1, count("not-in-users.example"));
+    }
+
+    /**
+     * Read a counter from the database; the counter updates are native statements the persistence context does not see
+     */
+    private long count(String domain) {
+        entityManager.flush();
+        entityManager.clear();
+        return emailDomainCounterService.getCount(domain);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.SpringBootDemo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeyOrderedExecutor
+ */
+class KeyOrderedExecutorTest {
+
+    private final KeyOrderedExecutor executor = new KeyOrderedExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void processAll_KeepsOrderWithinKey() {
+        List<String> items = List.of("a1", "b1", "a2", "c1", "b2", "a3", "c2", "b3");
+        Map<Character, List<String>> seen = new ConcurrentHashMap<>();
+
+        executor.processAll(items, item -> item.charAt(0),
+                item -> seen.computeIfAbsent(item.charAt(0), k -> new CopyOnWriteArrayList<>()).add(item));
+
+        assertEquals(List.of("a1", "a2", "a3"), seen.get('a'));
+        assertEquals(List.of("b1", "b2", "b3"), seen.get('b'));
+        assertEquals(List.of("c1", "c2"), seen.get('c'));
+    }
+
+    @Test
+    void processAll_RunsDifferentKeysConcurrently() {
+        // Each item waits for the other, which only completes if both run at the same time
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        executor.processAll(List.of("a", "b"), item -> item, item -> {
+            bothStarted.countDown();
+            try {
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertEquals(0, bothStarted.getCount());
+    }
+
+    @Test
+    void processAll_CompletesBatchBeforeReportingFailure() {
+        AtomicInteger processed = new AtomicInteger();
+
+        KeyOrderedExecutor.BatchItemFailedException failure = assertThrows(KeyOrderedExecutor.BatchItemFailedException.class, () ->
+                executor.processAll(List.of(1, 2, 3, 4), item -> item, item -> {
+                    if (item == 2) {
+                        throw new IllegalArgumentException("bad item");
+                    }
+                    processed.incrementAndGet();
+                }));
+
+        assertEquals(3, processed.get());
+        assertEquals(1, failure.getIndex());
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+    }
+
+    @Test
+    void processAll_ReportsEarliestFailureAndStopsItsKey() {
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        KeyOrderedExecutor.BatchItemFailedException failure = assertThrows(KeyOrderedExecutor.BatchItemFailedException.class, () ->
+                executor.processAll(List.of("a1", "b1", "a2", "b2", "a3"), item -> item.charAt(0), item -> {
+                    if (item.equals("a2") || item.equals("b2")) {
+                        throw new IllegalArgumentException(item);
+                    }
+                    processed.add(item);
+                }));
+
+        assertEquals(2, failure.getIndex());
+        assertEquals(1, failure.getSuppressed().length);
+        assertFalse(processed.contains("a3"));
+        assertTrue(processed.containsAll(List.of("a1", "b1")));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.SpringBootDemo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MessageHistory
+ */
+class MessageHistoryTest {
+
+    @Test
+    void capacity_RoundsUpToPowerOfTwo() {
+        assertEquals(1, new MessageHistory<String>(1).capacity());
+        assertEquals(8, new MessageHistory<String>(5).capacity());
+        assertEquals(1024, new MessageHistory<String>(1024).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new MessageHistory<String>(0));
+    }
+
+    @Test
+    void read_PagesWithSequenceCursor() {
+        MessageHistory<String> history = new MessageHistory<>(8);
+        history.addAll(List.of("a", "b", "c", "d", "e"));
+
+        MessageHistory.Page<String> first = history.read(-1, 2);
+        assertEquals(List.of("a", "b"), messages(first));
+        assertEquals(1, first.nextSince());
+
+        MessageHistory.Page<String> second = history.read(first.nextSince(), 10);
+        assertEquals(List.of("c", "d", "e"), messages(second));
+        assertEquals(4, second.nextSince());
+        assertEquals(4, second.latestSequence());
+
+        MessageHistory.Page<String> empty = history.read(second.nextSince(), 10);
+        assertTrue(empty.entries().isEmpty());
+        assertEquals(4, empty.nextSince());
+    }
+
+    @Test
+    void add_OverwritesOldestWhenFull() {
+        MessageHistory<Integer> history = new MessageHistory<>(4);
+        for (int i = 0; i < 10; i++) {
+            history.add(i);
+        }
+
+        assertEquals(List.of(6, 7, 8, 9), history.snapshot());
+
+        MessageHistory.Page<Integer> page = history.read(2, 10);
+        assertTrue(page.truncated());
+        assertEquals(6, page.oldestSequence());
+        assertEquals(List.of(6, 7, 8, 9), messages(page));
+        assertFalse(history.read(5, 10).truncated());
+    }
+
+    @Test
+    void clear_HidesExistingMessagesButKeepsSequence() {
+        MessageHistory<String> history = new MessageHistory<>(8);
+        history.addAll(List.of("a", "b"));
+        history.clear();
+        history.add("c");
+
+        MessageHistory.Page<String> page = history.read(-1, 10);
+        assertEquals(List.of("c"), messages(page));
+        assertEquals(2, page.entries().get(0).sequence());
+        assertFalse(page.truncated());
+    }
+
+    @Test
+    void add_ConcurrentWritersGetDistinctSequences() throws InterruptedException {
+        MessageHistory<Long> history = new MessageHistory<>(4096);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            long offset = t * 1000L;
+            pool.execute(() -> LongStream.range(0, 1000).forEach(i -> history.add(offset + i)));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        MessageHistory.Page<Long> page = history.read(-1, 4096);
+        assertEquals(4000, page.entries().size());
+        assertEquals(4000, page.entries().stream().map(MessageHistory.Entry::message).distinct().count());
+        for (int i = 0; i < page.entries().size(); i++) {
+            assertEquals(i, page.entries().get(i).sequence());
+        }
+    }
+
+    @Test
+    void add_ConcurrentWritersLappingTheRingKeepTheNewestEntries() throws InterruptedException {
+        MessageHistory<Long> history = new MessageHistory<>(4);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> LongStream.range(0, 20_000).forEach(history::add));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Every slot holds the newest sequence mapping to it, so a reader is never stopped by an older entry
+        MessageHistory.Page<Long> page = history.read(-1, 4);
+        assertEquals(159_999, page.latestSequence());
+        assertEquals(List.of(159_996L, 159_997L, 159_998L, 159_999L),
+                page.entries().stream().map(MessageHistory.Entry::sequence).toList());
+        assertEquals(159_999, page.nextSince());
+    }
+
+    private static <T> List<T> messages(MessageHistory.Page<T> page) {
+        List<T> messages = new ArrayList<>();
+        page.entries().forEach(entry -> messages.add(entry.message()));
+        return messages;
+    }
+}
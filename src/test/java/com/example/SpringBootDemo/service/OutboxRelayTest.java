@@ -0,0 +1,179 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.OutboxEvent;
+import com.example.SpringBootDemo.event.EventCodec;
+import com.example.SpringBootDemo.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboxRelay
+ */
+class OutboxRelayTest {
+
+    private OutboxEventRepository repository;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void relay_PublishesBatchAndMarksItSent() {
+        OutboxEvent first = event(1L, "7");
+        OutboxEvent second = event(2L, "8");
+        when(repository.findBySentAtIsNullAndParkedAtIsNullOrderByIdAsc(any(Limit.class))).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(acknowledged());
+
+        relay(10).relay();
+
+        ArgumentCaptor<ProducerRecord<String, Object>> records = recordCaptor();
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        ProducerRecord<String, Object> record = records.getAllValues().get(0);
+        assertEquals("user-events", record.topic());
+        assertEquals("7", record.key());
+        assertSame(first.getPayload(), record.value());
+        assertEquals(EventCodec.SCHEMA_VERSION, EventCodec.readSchemaVersion(record.headers()));
+
+        verify(repository).updateClaim(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(repository).markSent(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(repository, never()).updateClaim(any(), isNull());
+        assertEquals(2, meterRegistry.counter("outbox.events.published").count());
+        assertEquals(0, meterRegistry.get("outbox.pending").gauge().value());
+    }
+
+    @Test
+    void relay_HoldsBackLaterEventsForAFailedKey() {
+        OutboxEvent failed = event(1L, "7");
+        OutboxEvent otherKey = event(2L, "8");
+        OutboxEvent sameKey = event(3L, "7");
+        when(repository.findBySentAtIsNullAndParkedAtIsNullOrderByIdAsc(any(Limit.class))).thenReturn(List.of(failed, otherKey, sameKey));
+        when(repository.countBySentAtIsNullAndParkedAtIsNull()).thenReturn(2L);
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")))
+                .thenReturn(acknowledged())
+                .thenReturn(acknowledged());
+
+        relay(10).relay();
+
+        verify(repository).markSent(eq(List.of(2L)), any(LocalDateTime.class));
+        verify(repository).incrementAttempts(List.of(1L));
+        verify(repository).updateClaim(List.of(1L, 3L), null);
+        verify(repository, never()).park(any(), any());
+        assertEquals(1, meterRegistry.counter("outbox.events.failed").count());
+        assertEquals(2, meterRegistry.get("outbox.pending").gauge().value());
+    }
+
+    @Test
+    void relay_ParksEventAfterMaxAttempts() {
+        OutboxEvent failing = event(1L, "7");
+        ReflectionTestUtils.setField(failing, "attempts", 2);
+        OutboxEvent sameKey = event(2L, "7");
+        when(repository.findBySentAtIsNullAndParkedAtIsNullOrderByIdAsc(any(Limit.class))).thenReturn(List.of(failing, sameKey));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("record too large")))
+                .thenReturn(acknowledged());
+
+        relay(10).relay();
+
+        verify(repository).incrementAttempts(List.of(1L));
+        verify(repository).park(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(repository).updateClaim(List.of(1L, 2L), null);
+        assertEquals(1, meterRegistry.counter("outbox.events.parked").count());
+    }
+
+    @Test
+    void relay_BacksOffWhileAnotherRelayHoldsTheClaim() {
+        OutboxEvent claimed = event(1L, "7");
+        ReflectionTestUtils.setField(claimed, "claimedUntil", LocalDateTime.now().plusMinutes(1));
+        when(repository.findBySentAtIsNullAndParkedAtIsNullOrderByIdAsc(any(Limit.class))).thenReturn(List.of(claimed));
+        when(repository.countBySentAtIsNullAndParkedAtIsNull()).thenReturn(1L);
+
+        relay(10).relay();
+
+        verifyNoInteractions(kafkaTemplate);
+        verify(repository, never()).updateClaim(any(), any());
+        assertEquals(1, meterRegistry.get("outbox.pending").gauge().value());
+    }
+
+    @Test
+    void relay_StopsSendingAfterSynchronousFailure() {
+        when(repository.findBySentAtIsNullAndParkedAtIsNullOrderByIdAsc(any(Limit.class)))
+                .thenReturn(List.of(event(1L, "7"), event(2L, "8")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenThrow(new KafkaException("metadata timeout"));
+
+        relay(10).relay();
+
+        verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+        verify(repository, never()).markSent(any(), any());
+        verify(repository).incrementAttempts(List.of(1L));
+        verify(repository).updateClaim(List.of(1L, 2L), null);
+    }
+
+    @Test
+    void relay_DrainsFullBatchesBackToBack() {
+        when(repository.findBySentAtIsNullAndParkedAtIsNullOrderByIdAsc(any(Limit.class)))
+                .thenReturn(List.of(event(1L, "7"), event(2L, "8")))
+                .thenReturn(List.of(event(3L, "9")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(acknowledged());
+
+        relay(2).relay();
+
+        verify(repository, times(2)).findBySentAtIsNullAndParkedAtIsNullOrderByIdAsc(Limit.of(2));
+        verify(repository).markSent(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(repository).markSent(eq(List.of(3L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void purgeSentEvents_DeletesOlderThanRetention() {
+        relay(10).purgeSentEvents();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).deleteSentBefore(cutoff.capture());
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusHours(23)));
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        return new OutboxRelay(repository, kafkaTemplate, mock(PlatformTransactionManager.class),
+                meterRegistry, batchSize, 1000, 3, 24);
+    }
+
+    private static OutboxEvent event(Long id, String key) {
+        OutboxEvent event = new OutboxEvent("user-events", key, new byte[]{1, 2, 3}, EventCodec.SCHEMA_VERSION);
+        ReflectionTestUtils.setField(event, "id", id);
+        ReflectionTestUtils.setField(event, "createdAt", LocalDateTime.now().minusSeconds(1));
+        return event;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<SendResult<String, Object>> acknowledged() {
+        return CompletableFuture.completedFuture(mock(SendResult.class));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<ProducerRecord<String, Object>> recordCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(ProducerRecord.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+import com.example.SpringBootDemo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for UserImportService against the database
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserImportServiceTest {
+
+    private static final String RACED_EMAIL = "raced.import@example.com";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private EmailDomainCounterService emailDomainCounterService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByEmail(RACED_EMAIL).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importUsers_EmailRegisteredAfterTheExistenceCheck_FailsWithDataIntegrityViolation() {
+        // The existence check finds nothing, then another request registers the email before the insert
+        UserRepository racingRepository = mock(UserRepository.class);
+        when(racingRepository.findExistingEmails(any())).thenAnswer(invocation -> {
+            List<String> existing = userRepository.findExistingEmails(invocation.getArgument(0, Collection.class));
+            userRepository.save(new User("Other", "Request", RACED_EMAIL, "1234567890"));
+            return existing;
+        });
+        UserImportService importService = new UserImportService(racingRepository, passwordEncoder, outboxService,
+                emailDomainCounterService, objectMapper, validator, transactionManager);
+        ReflectionTestUtils.setField(importService, "entityManager", entityManager);
+        String csv = "firstName,lastName,email\nRaced,Import," + RACED_EMAIL + "\n";
+
+        assertThrows(DataIntegrityViolationException.class, () -> importService.importUsers(
+                UserImportService.Format.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("Other", userRepository.findByEmail(RACED_EMAIL).orElseThrow().getFirstName());
+    }
+}
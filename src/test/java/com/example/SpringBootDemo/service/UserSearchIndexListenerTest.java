@@ -0,0 +1,99 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserSearchIndexListener
+ * Transactions are simulated by driving the transaction synchronizations directly
+ */
+class UserSearchIndexListenerTest {
+
+    private UserSearchIndex index;
+    private UserSearchIndexListener listener;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex();
+        index.rebuild(Stream.of(user(1L, "John", "Doe", "john.doe@example.com")));
+        listener = new UserSearchIndexListener(index);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void onSave_AppliedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        listener.onSave(user(2L, "Johnny", "Walker", "jw@gmail.com"));
+
+        assertEquals(List.of(1L), ids(index.searchNames("john", 10)));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(List.of(1L, 2L), ids(index.searchNames("john", 10)));
+    }
+
+    @Test
+    void onSaveAndRemove_DiscardedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        listener.onSave(user(2L, "Johnny", "Walker", "jw@gmail.com"));
+        listener.onRemove(user(1L, "John", "Doe", "john.doe@example.com"));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(List.of(1L), ids(index.searchNames("john", 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void onSave_LastChangeOfTheTransactionWins() {
+        TransactionSynchronizationManager.initSynchronization();
+        User user = user(2L, "Johnny", "Walker", "jw@gmail.com");
+        listener.onSave(user);
+        listener.onRemove(user);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(List.of(1L), ids(index.searchNames("john", 10)));
+    }
+
+    @Test
+    void onSave_WithoutTransactionAppliedImmediately() {
+        listener.onSave(user(2L, "Johnny", "Walker", "jw@gmail.com"));
+
+        assertEquals(List.of(1L, 2L), ids(index.searchNames("john", 10)));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+
+    private static List<Long> ids(List<UserSearchIndex.Entry> entries) {
+        return entries.stream().map(UserSearchIndex.Entry::getId).toList();
+    }
+
+    private static User user(Long id, String firstName, String lastName, String email) {
+        User user = new User(firstName, lastName, email, "1234567890");
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.SpringBootDemo.service;
+
+import com.example.SpringBootDemo.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserSearchIndex
+ */
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex();
+        index.rebuild(Stream.of(
+                user(1L, "John", "Doe", "john.doe@example.com"),
+                user(2L, "Johnny", "Walker", "jw@gmail.com"),
+                user(3L, "Mary", "Johnson", "mary@mail.com"),
+                user(4L, "Alice", "Smith", "alice@example.org")));
+    }
+
+    @Test
+    void searchNames_RanksPrefixBeforeWordPrefix() {
+        List<UserSearchIndex.Entry> results = index.searchNames("john", 10);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(results));
+    }
+
+    @Test
+    void searchNames_InnerSubstringIsCaseInsensitive() {
+        assertEquals(List.of(4L), ids(index.searchNames("MITH", 10)));
+        assertTrue(index.searchNames("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void searchNames_ShortQueryMatchesWordPrefixes() {
+        assertEquals(List.of(3L), ids(index.searchNames("ma", 10)));
+    }
+
+    @Test
+    void searchNames_RespectsLimit() {
+        assertEquals(List.of(1L, 2L), ids(index.searchNames("john", 2)));
+    }
+
+    @Test
+    void searchEmails_MatchesSubstring() {
+        assertEquals(List.of(4L, 1L), ids(index.searchEmails("example", 10)));
+    }
+
+    @Test
+    void add_ReindexesChangedUser() {
+        index.add(user(1L, "Jonathan", "Doe", "jon@example.com"));
+
+        assertEquals(List.of(2L, 3L), ids(index.searchNames("john", 10)));
+        assertEquals(List.of(1L), ids(index.searchNames("jonathan", 10)));
+    }
+
+    @Test
+    void remove_DropsUser() {
+        index.remove(2L);
+
+        assertEquals(List.of(1L, 3L), ids(index.searchNames("john", 10)));
+        assertEquals(3, index.size());
+    }
+
+    private static List<Long> ids(List<UserSearchIndex.Entry> entries) {
+        return entries.stream().map(UserSearchIndex.Entry::getId).toList();
+    }
+
+    private static User user(Long id, String firstName, String lastName, String email) {
+        User user = new User(firstName, lastName, email, "1234567890");
+        user.setId(id);
+        return user;
+    }
+}